@@ -0,0 +1,56 @@
+package com.erailea.todoappclone.cache;
+
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Tags reads of a user's lists and notes with the user's version counter. A request whose {@code If-None-Match}
+ * still carries the current tag is answered with 304 after one KV get, before the read itself runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalReads {
+    private final UserVersionRepository userVersionRepository;
+
+    public <T> Mono<ResponseEntity<T>> ifNoneMatch(String userId, String ifNoneMatch, Supplier<Mono<ResponseEntity<T>>> read) {
+        // The version is read before the data, so a write racing the read leaves the tag behind rather than ahead
+        return userVersionRepository.current(userId).flatMap(version -> {
+            String eTag = eTag(userId, version);
+            if (matches(ifNoneMatch, eTag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .build());
+            }
+            return read.get().map(response -> ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .eTag(eTag)
+                    .body(response.getBody()));
+        });
+    }
+
+    /**
+     * Includes the user so a client cache shared by two accounts never revalidates one user's response with
+     * the other's version.
+     */
+    static String eTag(String userId, long version) {
+        return "\"" + userId + "." + version + "\"";
+    }
+
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        // If-None-Match uses the weak comparison, so a W/ prefix added by a proxy still matches
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+}
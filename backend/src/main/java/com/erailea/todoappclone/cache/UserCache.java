@@ -0,0 +1,177 @@
+package com.erailea.todoappclone.cache;
+
+import com.erailea.todoappclone.model.User;
+import com.erailea.todoappclone.model.UserEmailLookup;
+import com.erailea.todoappclone.repository.UserEmailLookupRepository;
+import com.erailea.todoappclone.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-node read-through cache in front of {@link UserRepository}, keyed by both email and id. A user loaded
+ * through one key is indexed under the other, and both entries are replaced or dropped together: on
+ * {@link #save(User)}, and by the refresh methods that skip the cache for callers that must see the stored user.
+ * Cache misses resolve the email through its {@link UserEmailLookup} document, so a lookup costs two KV
+ * gets instead of a query; the N1QL path is only used for users that predate the lookup documents, and only
+ * until the backfill has written its completion marker.
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final UserEmailLookupRepository userEmailLookupRepository;
+    private volatile boolean legacyFallback;
+    private final Cache<String, User> usersByEmail;
+    private final Cache<String, User> usersById;
+
+    public UserCache(UserRepository userRepository,
+                     UserEmailLookupRepository userEmailLookupRepository,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.ttl:5m}") Duration ttl,
+                     @Value("${users.email-lookup.legacy-fallback:false}") boolean legacyFallback,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userEmailLookupRepository = userEmailLookupRepository;
+        this.legacyFallback = legacyFallback;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "usersByEmail");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "usersById");
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(usersByEmail.get(email, key -> loadByEmail(key)
+                .map(this::indexById)
+                .orElse(null)));
+    }
+
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(usersById.get(id, key -> userRepository.findById(key)
+                .map(this::indexByEmail)
+                .orElse(null)));
+    }
+
+    /**
+     * Loads the user from Couchbase even when it is cached, and replaces or drops both cached entries to match.
+     */
+    public Optional<User> refreshByEmail(String email) {
+        Optional<User> user = loadByEmail(email);
+        user.ifPresentOrElse(this::cache, () -> {
+            User cached = usersByEmail.getIfPresent(email);
+            if (cached != null) {
+                evict(cached);
+            }
+        });
+        return user;
+    }
+
+    /**
+     * Same as {@link #refreshByEmail(String)}, with a single KV get on the user document.
+     */
+    public Optional<User> refreshById(String id) {
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresentOrElse(this::cache, () -> {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null) {
+                evict(cached);
+            }
+        });
+        return user;
+    }
+
+    public boolean existsByEmail(String email) {
+        // Only positive answers are cached; a miss must still ask Couchbase so new registrations are seen
+        return usersByEmail.getIfPresent(email) != null
+                || userEmailLookupRepository.existsById(UserEmailLookup.keyFor(email))
+                || (legacyFallbackActive() && userRepository.existsByEmail(email));
+    }
+
+    /**
+     * Claims the user's email with an atomic insert of its lookup document and then stores the user.
+     * Throws {@link DuplicateKeyException} when another registration already owns the email.
+     */
+    public User create(User user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID().toString());
+        }
+
+        UserEmailLookup lookup = userEmailLookupRepository.insert(UserEmailLookup.of(user.getEmail(), user.getId()));
+        try {
+            return save(user);
+        } catch (RuntimeException e) {
+            // Release the email so a retry is not blocked by a lookup that points nowhere
+            userEmailLookupRepository.deleteById(lookup.getId());
+            throw e;
+        }
+    }
+
+    public User save(User user) {
+        User savedUser = userRepository.save(user);
+        cache(savedUser);
+        return savedUser;
+    }
+
+    public CacheStats stats() {
+        return usersByEmail.stats().plus(usersById.stats());
+    }
+
+    private Optional<User> loadByEmail(String email) {
+        Optional<User> user = userEmailLookupRepository.findById(UserEmailLookup.keyFor(email))
+                .flatMap(lookup -> userRepository.findById(lookup.getUserId()))
+                .filter(found -> email.equals(found.getEmail()));
+        if (user.isEmpty() && legacyFallbackActive()) {
+            return userRepository.findByEmail(email);
+        }
+        return user;
+    }
+
+    private boolean legacyFallbackActive() {
+        // Only reached on a lookup miss, where the marker get is cheap next to the query it saves
+        if (legacyFallback && userEmailLookupRepository.existsById(UserEmailLookup.BACKFILL_COMPLETE_KEY)) {
+            legacyFallback = false;
+        }
+        return legacyFallback;
+    }
+
+    private void cache(User user) {
+        // A changed email must not leave the old address pointing at this user
+        User previous = usersById.getIfPresent(user.getId());
+        if (previous != null && !previous.getEmail().equals(user.getEmail())) {
+            usersByEmail.invalidate(previous.getEmail());
+        }
+        usersById.put(user.getId(), user);
+        usersByEmail.put(user.getEmail(), user);
+    }
+
+    private void evict(User user) {
+        usersById.invalidate(user.getId());
+        usersByEmail.invalidate(user.getEmail());
+    }
+
+    private User indexById(User user) {
+        usersById.put(user.getId(), user);
+        return user;
+    }
+
+    private User indexByEmail(User user) {
+        usersByEmail.put(user.getEmail(), user);
+        return user;
+    }
+}
@@ -0,0 +1,59 @@
+package com.erailea.todoappclone.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent Couchbase calls of one request side by side. With {@code spring.threads.virtual.enabled}
+ * each forked call gets its own virtual thread, so waiting on it costs no platform thread. On platform threads
+ * forked calls run inline on the request thread instead: a second pool competing with Tomcat's would only move
+ * the blocking around.
+ */
+@Component
+public class FanOutExecutor {
+    private final ExecutorService executor;
+
+    public FanOutExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public <T> CompletableFuture<T> fork(Supplier<T> task) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Waits for a forked call and rethrows its exception as-is, so callers see the same
+     * {@code ResourceNotFoundException} or data access exception as with a direct call.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveConfig {
+    // Import writes in flight at once; the archive is only read further as writes complete
+    private int importConcurrency = 128;
+
+    // Lists exported per note query
+    private int exportBatchSize = 50;
+}
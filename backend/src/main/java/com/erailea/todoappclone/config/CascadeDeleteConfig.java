@@ -0,0 +1,25 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@EnableScheduling
+@ConfigurationProperties(prefix = "lists.cascade-delete")
+public class CascadeDeleteConfig {
+    // Jobs processed concurrently on this node; further jobs wait in Couchbase for the next poll
+    private int workerThreads = 2;
+
+    // Notes soft deleted per UPDATE statement; progress is checkpointed after each chunk
+    private int chunkSize = 500;
+
+    // How long a claimed job is reserved for its worker before another node may take it over
+    private Duration lease = Duration.ofMinutes(2);
+
+    private int maxAttempts = 5;
+}
@@ -2,15 +2,19 @@ package com.erailea.todoappclone.config;
 
 import com.couchbase.client.java.Cluster;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.erailea.todoappclone.repository.KeyValueCouchbaseRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.couchbase.config.AbstractCouchbaseConfiguration;
 import org.springframework.data.couchbase.repository.config.EnableCouchbaseRepositories;
+import org.springframework.data.couchbase.repository.config.EnableReactiveCouchbaseRepositories;
 
 
 @Configuration
-@EnableCouchbaseRepositories(basePackages = "com.erailea.todoappclone.repository")
+@EnableCouchbaseRepositories(basePackages = "com.erailea.todoappclone.repository",
+        repositoryBaseClass = KeyValueCouchbaseRepository.class)
+@EnableReactiveCouchbaseRepositories(basePackages = "com.erailea.todoappclone.repository")
 public class CouchbaseConfig extends AbstractCouchbaseConfiguration {
 
     @Value("${spring.couchbase.connection-string}")
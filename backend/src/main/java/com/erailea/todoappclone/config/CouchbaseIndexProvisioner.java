@@ -0,0 +1,196 @@
+package com.erailea.todoappclone.config;
+
+import com.couchbase.client.core.error.IndexExistsException;
+import com.couchbase.client.core.error.TimeoutException;
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.query.QueryOptions;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.model.User;
+import com.erailea.todoappclone.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the GSI indexes behind the repository queries so a fresh bucket never falls back to primary scans.
+ * Indexes are created deferred and built together, then every query shape is EXPLAINed and logged; a plan
+ * that does not pick its intended index is reported as a warning.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "couchbase.indexes.auto-create", havingValue = "true", matchIfMissing = true)
+public class CouchbaseIndexProvisioner implements ApplicationRunner {
+    private static final String ACTIVE = "(deletedAt IS MISSING OR deletedAt IS NULL)";
+
+    private final CouchbaseTemplate couchbaseTemplate;
+    private final Duration buildTimeout;
+
+    public CouchbaseIndexProvisioner(CouchbaseTemplate couchbaseTemplate,
+                                     @Value("${couchbase.indexes.build-timeout:5m}") Duration buildTimeout) {
+        this.couchbaseTemplate = couchbaseTemplate;
+        this.buildTimeout = buildTimeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Cluster cluster = couchbaseTemplate.getCouchbaseClientFactory().getCluster();
+        String bucket = couchbaseTemplate.getBucketName();
+        List<IndexDefinition> indexes = indexDefinitions();
+
+        for (IndexDefinition index : indexes) {
+            try {
+                cluster.query(index.createStatement(bucket));
+            } catch (IndexExistsException e) {
+                // Another node created it between our IF NOT EXISTS check and the create
+                log.debug("Index {} already exists", index.name());
+            }
+        }
+
+        List<String> names = indexes.stream()
+                .map(IndexDefinition::name)
+                .collect(Collectors.toList());
+        try {
+            cluster.queryIndexes().buildDeferredIndexes(bucket);
+            cluster.queryIndexes().watchIndexes(bucket, names, buildTimeout);
+            log.info("Indexes online: {}", names);
+        } catch (TimeoutException e) {
+            // Queries still run, just slower; don't hold startup hostage to a large initial build
+            log.warn("Indexes {} were not online after {}", names, buildTimeout);
+        }
+
+        for (IndexDefinition index : indexes) {
+            explain(cluster, bucket, index);
+        }
+    }
+
+    private void explain(Cluster cluster, String bucket, IndexDefinition index) {
+        List<JsonObject> rows = cluster.query("EXPLAIN " + index.probeStatement(bucket),
+                        QueryOptions.queryOptions().parameters(index.probeArgs()))
+                .rowsAsObject();
+        String plan = rows.isEmpty() ? "" : rows.get(0).toString();
+        if (plan.contains(index.name())) {
+            log.info("Query plan for {}: {}", index.name(), plan);
+        } else {
+            log.warn("Query expected to use {} does not: {}", index.name(), plan);
+        }
+    }
+
+    private List<IndexDefinition> indexDefinitions() {
+        String typeKey = couchbaseTemplate.getConverter().getTypeKey();
+        String todoList = typeFilter(typeKey, TodoList.class);
+        String note = typeFilter(typeKey, Note.class);
+        String user = typeFilter(typeKey, User.class);
+        String cascadeDeleteJob = typeFilter(typeKey, CascadeDeleteJob.class);
+
+        return List.of(
+                // TodoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc and the reactive list pages
+                new IndexDefinition("idx_todolist_user_created",
+                        "userId, createdAt DESC",
+                        todoList + " AND " + ACTIVE,
+                        "userId = $1 ORDER BY createdAt DESC",
+                        JsonArray.from("")),
+                // TodoListRepository.findActiveBatchAfterId
+                new IndexDefinition("idx_todolist_id",
+                        "META().id",
+                        todoList + " AND " + ACTIVE,
+                        "META().id > $1 ORDER BY META().id LIMIT 1",
+                        JsonArray.from("")),
+                // NoteRepository.findAllByListId*AndDeletedAtIsNull, including the due-date ordering
+                new IndexDefinition("idx_note_list_due",
+                        "listId, dueDate, createdAt",
+                        note + " AND " + ACTIVE,
+                        "listId IN $1",
+                        JsonArray.from(JsonArray.from(""))),
+                // Due-date ordered note queries: ReactiveNoteRepository.findPageByListId and the NoteRepository *OrderBy* queries
+                new IndexDefinition("idx_note_list_due_page",
+                        "listId, " + NoteRepository.DUE_DATE_KEY + ", createdAt",
+                        note + " AND " + ACTIVE,
+                        "listId = $1 AND " + NoteRepository.DUE_DATE_KEY + " >= $2 "
+                                + "ORDER BY " + NoteRepository.DUE_DATE_KEY + ", createdAt LIMIT 1",
+                        JsonArray.from("", 0L)),
+                // ReactiveNoteRepository.findAgendaPage
+                new IndexDefinition("idx_note_user_agenda",
+                        "userId, done, dueDate, createdAt",
+                        note + " AND " + ACTIVE,
+                        "userId = $1 AND done = false AND dueDate >= $2 AND dueDate < $3 "
+                                + "ORDER BY dueDate, createdAt LIMIT 1",
+                        JsonArray.from("", 0L, 0L)),
+                // NoteRepository.findDueBatch and findDueChangedSince, which load the reminder wheel
+                new IndexDefinition("idx_note_due_reminder",
+                        "dueDate, createdAt, updatedAt",
+                        note + " AND " + ACTIVE + " AND done = false",
+                        "dueDate >= $1 AND dueDate < $2 ORDER BY dueDate LIMIT 1",
+                        JsonArray.from(0L, 0L)),
+                // TodoListRepository.findAllByUserIdChangedSince; covers soft-deleted lists too
+                new IndexDefinition("idx_todolist_user_updated",
+                        "userId, updatedAt",
+                        todoList,
+                        "userId = $1 AND updatedAt >= $2",
+                        JsonArray.from("", 0L)),
+                // NoteRepository.findAllByUserIdChangedSince; covers soft-deleted notes too
+                new IndexDefinition("idx_note_user_updated",
+                        "userId, updatedAt",
+                        note,
+                        "userId = $1 AND updatedAt >= $2",
+                        JsonArray.from("", 0L)),
+                // UserRepository.findByEmail / existsByEmail for users without a lookup document
+                new IndexDefinition("idx_user_email",
+                        "email",
+                        user,
+                        "email = $1",
+                        JsonArray.from("")),
+                // UserRepository.findBatchAfterId
+                new IndexDefinition("idx_user_id",
+                        "META().id",
+                        user,
+                        "META().id > $1 ORDER BY META().id LIMIT 1",
+                        JsonArray.from("")),
+                // NoteRepository.findBatchWithoutUserIdAfterId
+                new IndexDefinition("idx_note_missing_user",
+                        "META().id",
+                        note + " AND (userId IS MISSING OR userId IS NULL)",
+                        "META().id > $1 ORDER BY META().id LIMIT 1",
+                        JsonArray.from("")),
+                // CascadeDeleteJobRepository.findClaimable
+                new IndexDefinition("idx_cascade_job_claimable",
+                        "leaseExpiresAt",
+                        cascadeDeleteJob + " AND status IN [\"PENDING\", \"RUNNING\"]",
+                        "leaseExpiresAt < $1 ORDER BY leaseExpiresAt LIMIT 1",
+                        JsonArray.from(0L))
+        );
+    }
+
+    private static String typeFilter(String typeKey, Class<?> entityClass) {
+        return "`" + typeKey + "` = \"" + entityClass.getName() + "\"";
+    }
+
+    /**
+     * A partial index and a probe predicate shaped like the repository query it serves. The probe repeats the
+     * index condition so the planner can prove the partial index applies.
+     */
+    private record IndexDefinition(String name, String keys, String condition, String probe, JsonArray probeArgs) {
+        String createStatement(String bucket) {
+            return "CREATE INDEX IF NOT EXISTS `" + name + "` ON `" + bucket + "`(" + keys + ")"
+                    + " WHERE " + condition + " WITH {\"defer_build\": true}";
+        }
+
+        String probeStatement(String bucket) {
+            return "SELECT META().id FROM `" + bucket + "` WHERE " + condition + " AND " + probe;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.erailea.todoappclone.config;
+
+import com.erailea.todoappclone.model.TodoList;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lists.embedded-notes")
+public class EmbeddedNotesConfig {
+    // Keep a copy of each list's active notes inside the list document so a list renders from one KV get
+    private boolean enabled = false;
+
+    // Notes beyond this many stay in their own documents and the list is read through the note query
+    private int maxSize = 200;
+
+    // One-off rewrite of existing lists at startup: EMBED copies notes in, EXTRACT drops the copies again
+    private Migration migration = Migration.NONE;
+
+    /**
+     * Whether the list's notes can be served from the list document itself.
+     */
+    public boolean isEmbedded(TodoList list) {
+        return enabled && list.getNotes() != null && !list.isNotesOverflow();
+    }
+
+    public enum Migration {
+        NONE, EMBED, EXTRACT
+    }
+}
@@ -0,0 +1,22 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "events")
+public class EventsConfig {
+    // Events held for a connection that is not keeping up; past this it is sent a resync and closed
+    private int bufferSize = 256;
+    // Keeps idle connections open through proxies; sent without reading anything
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // How often the version of a user with open streams is read to catch changes made on other nodes
+    private Duration versionCheck = Duration.ofSeconds(30);
+    // Streams complete after this and the client reconnects. Streamed responses are exempt from
+    // spring.mvc.async.request-timeout, so this is what bounds their lifetime
+    private Duration maxDuration = Duration.ofMinutes(25);
+}
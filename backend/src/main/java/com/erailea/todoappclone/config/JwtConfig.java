@@ -4,10 +4,19 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 public class JwtConfig {
     private String secret;
     private long expiration;
+
+    // Build the principal from token claims instead of loading the user on every request
+    private boolean statelessPrincipal = true;
+
+    // Ant-style paths that still load the user from Couchbase, e.g. where revocation must be honoured
+    private List<String> liveLookupPaths = new ArrayList<>();
 } 
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "reminders")
+public class ReminderConfig {
+    private boolean enabled = false;
+
+    // How long before a note's due date its reminder fires
+    private Duration leadTime = Duration.ofMinutes(15);
+
+    // Notes are split into this many partitions by creation time; each is scheduled by one node at a time
+    private int partitions = 64;
+
+    // Resolution of the timing wheel; reminders fire up to one tick late
+    private Duration tick = Duration.ofSeconds(1);
+
+    // How far ahead reminders are loaded into the wheel; later ones are loaded as they come into range
+    private Duration horizon = Duration.ofMinutes(10);
+
+    // How often partition leases are renewed and the wheel is topped up and caught up on other nodes' changes
+    private Duration pollInterval = Duration.ofSeconds(10);
+
+    // Partitions of a node that stopped renewing are taken over after this long
+    private Duration lease = Duration.ofMinutes(1);
+
+    // Notes read per query while loading the wheel
+    private int loadBatchSize = 5000;
+}
@@ -0,0 +1,17 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search")
+public class SearchConfig {
+    // Notes indexed across all users on this node; least recently searched users are dropped beyond it
+    private long maxIndexedNotes = 1_000_000;
+    // A user's index is dropped after this long without a search and rebuilt on the next one
+    private Duration idleTtl = Duration.ofMinutes(30);
+}
@@ -1,10 +1,13 @@
 package com.erailea.todoappclone.config;
 
+import com.erailea.todoappclone.pagination.CursorPage;
 import com.erailea.todoappclone.security.JwtAuthenticationFilter;
 import com.erailea.todoappclone.security.UserContextFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -33,6 +36,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Mono responses finish on an async dispatch of a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/*", "/swagger-ui/*", "/swagger-ui.html", "/api-docs", "/api-docs/*").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -59,6 +64,9 @@ public class SecurityConfig {
         // Allow all headers
         configuration.setAllowedHeaders(List.of("*"));
 
+        // Let browser clients read the cursor of the next page and the version tag of a read
+        configuration.setExposedHeaders(List.of(CursorPage.NEXT_CURSOR_HEADER, HttpHeaders.ETAG));
+
         // Allow credentials
         configuration.setAllowCredentials(true);
 
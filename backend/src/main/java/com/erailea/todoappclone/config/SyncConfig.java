@@ -0,0 +1,15 @@
+package com.erailea.todoappclone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sync")
+public class SyncConfig {
+    // How far behind the clock a sync token starts; covers clock skew between nodes and writes still in flight
+    private Duration skewWindow = Duration.ofSeconds(5);
+}
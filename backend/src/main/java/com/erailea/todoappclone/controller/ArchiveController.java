@@ -0,0 +1,43 @@
+package com.erailea.todoappclone.controller;
+
+import com.erailea.todoappclone.dto.ArchiveEntry;
+import com.erailea.todoappclone.dto.response.ImportResponse;
+import com.erailea.todoappclone.security.UserContext;
+import com.erailea.todoappclone.service.ArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Archive", description = "Account export and import APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class ArchiveController {
+    private final ArchiveService archiveService;
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export the account", description = "Streams every active list and note of the authenticated user as newline-delimited JSON, each list followed by its notes")
+    public Flux<ArchiveEntry> exportArchive() {
+        String userId = UserContext.getCurrentUserId();
+        return archiveService.exportArchive(userId);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import an account export", description = "Reads an export as it is uploaded and inserts its lists and notes for the authenticated user. ids=REMAP (default) gives every document a new id, ids=PRESERVE keeps the exported ids and skips those already taken")
+    public ResponseEntity<ImportResponse> importArchive(
+            InputStream archive,
+            @RequestParam(name = "ids", defaultValue = "REMAP") ArchiveService.IdMode idMode) {
+        String userId = UserContext.getCurrentUserId();
+        return ResponseEntity.ok(archiveService.importArchive(userId, archive, idMode));
+    }
+}
@@ -0,0 +1,33 @@
+package com.erailea.todoappclone.controller;
+
+import com.erailea.todoappclone.events.ChangeEvent;
+import com.erailea.todoappclone.events.ChangeEventHub;
+import com.erailea.todoappclone.security.UserContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Change notification APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class EventController {
+    private final ChangeEventHub changeEventHub;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes", description = "Pushes a change event for every write to the authenticated user's lists and notes, with the user's version as its id. A client reconnecting with Last-Event-ID is sent a resync when anything changed in between. A resync event means events were missed; the client should catch up through GET /sync and reconnect")
+    public Flux<ServerSentEvent<ChangeEvent>> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String userId = UserContext.getCurrentUserId();
+        return changeEventHub.subscribe(userId, lastEventId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.erailea.todoappclone.controller;
+
+import com.erailea.todoappclone.dto.response.CascadeDeleteJobResponse;
+import com.erailea.todoappclone.mapper.CascadeDeleteJobMapper;
+import com.erailea.todoappclone.security.UserContext;
+import com.erailea.todoappclone.service.CascadeDeleteJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Background job status APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class JobController {
+    private final CascadeDeleteJobService cascadeDeleteJobService;
+    private final CascadeDeleteJobMapper cascadeDeleteJobMapper;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job status", description = "Retrieves the progress of a list deletion job")
+    public ResponseEntity<CascadeDeleteJobResponse> getJob(@PathVariable String id) {
+        String userId = UserContext.getCurrentUserId();
+        return ResponseEntity.ok(cascadeDeleteJobMapper.toResponse(cascadeDeleteJobService.getJob(id, userId)));
+    }
+}
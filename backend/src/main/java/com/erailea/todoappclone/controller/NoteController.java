@@ -1,8 +1,12 @@
 package com.erailea.todoappclone.controller;
 
+import com.erailea.todoappclone.cache.ConditionalReads;
 import com.erailea.todoappclone.dto.request.CreateNoteRequest;
+import com.erailea.todoappclone.dto.request.NoteBatchRequest;
 import com.erailea.todoappclone.dto.request.UpdateNoteRequest;
+import com.erailea.todoappclone.dto.response.NoteBatchResult;
 import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.pagination.CursorPage;
 import com.erailea.todoappclone.security.UserContext;
 import com.erailea.todoappclone.service.NoteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +14,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,12 +29,19 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class NoteController {
     private final NoteService noteService;
+    private final ConditionalReads conditionalReads;
 
     @GetMapping("/lists/{id}/notes")
-    @Operation(summary = "Get all notes in a list", description = "Retrieves all notes in a specific todo list")
-    public ResponseEntity<List<Note>> getNotesByList(@PathVariable String id) {
+    @Operation(summary = "Get notes in a list", description = "Retrieves a page of notes in a specific todo list ordered by due date; pass the X-Next-Cursor header of a response as cursor to get the next page; answers 304 when If-None-Match carries the current ETag")
+    public Mono<ResponseEntity<List<Note>>> getNotesByList(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Resolved on the request thread; the Couchbase calls complete without holding it
         String userId = UserContext.getCurrentUserId();
-        return ResponseEntity.ok(noteService.getNotesByListId(id, userId));
+        return conditionalReads.ifNoneMatch(userId, ifNoneMatch, () ->
+                noteService.getNotesByListIdReactive(id, userId, cursor, limit).map(CursorPage::toResponseEntity));
     }
 
     @PostMapping("/lists/{id}/notes")
@@ -39,10 +54,26 @@ public class NoteController {
     }
 
     @GetMapping("/notes/{id}")
-    @Operation(summary = "Get a specific note", description = "Retrieves a specific note by its ID")
-    public ResponseEntity<Note> getNote(@PathVariable String id) {
+    @Operation(summary = "Get a specific note", description = "Retrieves a specific note by its ID; answers 304 when If-None-Match carries the current ETag")
+    public Mono<ResponseEntity<Note>> getNote(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String userId = UserContext.getCurrentUserId();
+        return conditionalReads.ifNoneMatch(userId, ifNoneMatch, () ->
+                noteService.getNoteByIdReactive(id, userId).map(ResponseEntity::ok));
+    }
+
+    @GetMapping("/agenda")
+    @Operation(summary = "Get upcoming notes", description = "Retrieves a page of the user's undone notes across all lists that are due in [from, to), ordered by due date. Both bounds are optional; notes without a due date are left out. Pass the X-Next-Cursor header of a response as cursor to get the next page; answers 304 when If-None-Match carries the current ETag")
+    public Mono<ResponseEntity<List<Note>>> getAgenda(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String userId = UserContext.getCurrentUserId();
-        return ResponseEntity.ok(noteService.getNoteById(id, userId));
+        return conditionalReads.ifNoneMatch(userId, ifNoneMatch, () ->
+                noteService.getAgenda(userId, from, to, cursor, limit).map(CursorPage::toResponseEntity));
     }
 
     @PatchMapping("/notes/{id}")
@@ -54,6 +85,13 @@ public class NoteController {
         return ResponseEntity.ok(noteService.updateNote(id, request, userId));
     }
 
+    @PostMapping("/notes/batch")
+    @Operation(summary = "Apply note operations in a batch", description = "Creates, updates and deletes up to 100 notes in one request. Each operation is validated and applied on its own and gets its own result, in request order")
+    public ResponseEntity<List<NoteBatchResult>> applyBatch(@Valid @RequestBody NoteBatchRequest request) {
+        String userId = UserContext.getCurrentUserId();
+        return ResponseEntity.ok(noteService.applyBatch(request.getOperations(), userId));
+    }
+
     @DeleteMapping("/notes/{id}")
     @Operation(summary = "Delete note", description = "Soft deletes a specific note")
     public ResponseEntity<Void> deleteNote(@PathVariable String id) {
@@ -0,0 +1,32 @@
+package com.erailea.todoappclone.controller;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.search.NoteSearchIndex;
+import com.erailea.todoappclone.security.UserContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Note search APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class SearchController {
+    private final NoteSearchIndex noteSearchIndex;
+
+    @GetMapping
+    @Operation(summary = "Search notes", description = "Returns the authenticated user's notes whose content contains every word of the query, best matches first. Words match by prefix, so a partly typed last word finds its completions")
+    public ResponseEntity<List<Note>> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        String userId = UserContext.getCurrentUserId();
+        return ResponseEntity.ok(noteSearchIndex.search(userId, q, limit));
+    }
+}
@@ -0,0 +1,30 @@
+package com.erailea.todoappclone.controller;
+
+import com.erailea.todoappclone.dto.response.SyncResponse;
+import com.erailea.todoappclone.security.UserContext;
+import com.erailea.todoappclone.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+@RequiredArgsConstructor
+@Tag(name = "Sync", description = "Incremental sync APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class SyncController {
+    private final SyncService syncService;
+
+    @GetMapping
+    @Operation(summary = "Get changes since a checkpoint", description = "Returns the lists and notes created, updated or deleted since the given checkpoint, and the checkpoint for the next call. Without since, only a starting checkpoint is returned")
+    public ResponseEntity<SyncResponse> getChanges(@RequestParam(required = false) String since) {
+        String userId = UserContext.getCurrentUserId();
+        return ResponseEntity.ok(syncService.getChanges(userId, since));
+    }
+}
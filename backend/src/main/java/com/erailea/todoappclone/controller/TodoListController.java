@@ -1,9 +1,14 @@
 package com.erailea.todoappclone.controller;
 
+import com.erailea.todoappclone.cache.ConditionalReads;
 import com.erailea.todoappclone.dto.request.CreateTodoListRequest;
 import com.erailea.todoappclone.dto.request.UpdateTodoListRequest;
+import com.erailea.todoappclone.dto.response.CascadeDeleteJobResponse;
 import com.erailea.todoappclone.dto.response.TodoListResponse;
+import com.erailea.todoappclone.mapper.CascadeDeleteJobMapper;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
 import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.CursorPage;
 import com.erailea.todoappclone.security.UserContext;
 import com.erailea.todoappclone.service.TodoListService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,8 +16,13 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -23,12 +33,26 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class TodoListController {
     private final TodoListService todoListService;
+    private final CascadeDeleteJobMapper cascadeDeleteJobMapper;
+    private final ConditionalReads conditionalReads;
 
     @GetMapping
-    @Operation(summary = "Get all todo lists with notes", description = "Retrieves all todo lists with their notes for the authenticated user")
-    public ResponseEntity<List<TodoListResponse>> getLists() {
+    @Operation(summary = "Get todo lists with notes", description = "Retrieves a page of todo lists with their notes for the authenticated user, newest first; pass the X-Next-Cursor header of a response as cursor to get the next page; answers 304 when If-None-Match carries the current ETag")
+    public Mono<ResponseEntity<List<TodoListResponse>>> getLists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Resolved on the request thread; the Couchbase calls complete without holding it
         String userId = UserContext.getCurrentUserId();
-        return ResponseEntity.ok(todoListService.getLists(userId));
+        return conditionalReads.ifNoneMatch(userId, ifNoneMatch, () ->
+                todoListService.getListsReactive(userId, cursor, limit).map(CursorPage::toResponseEntity));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all todo lists with notes", description = "Streams the todo lists of the authenticated user as newline-delimited JSON, one list with its notes per line, without building the whole response in memory")
+    public Flux<TodoListResponse> streamLists() {
+        String userId = UserContext.getCurrentUserId();
+        return todoListService.streamLists(userId);
     }
 
     @PostMapping
@@ -48,10 +72,13 @@ public class TodoListController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete todo list", description = "Deletes a specific todo list and all its notes")
-    public ResponseEntity<Void> deleteList(@PathVariable String id) {
+    @Operation(summary = "Delete todo list", description = "Deletes a specific todo list and schedules the deletion of its notes")
+    public ResponseEntity<CascadeDeleteJobResponse> deleteList(@PathVariable String id) {
         String userId = UserContext.getCurrentUserId();
-        todoListService.deleteList(id, userId);
-        return ResponseEntity.ok().build();
+        CascadeDeleteJob job = todoListService.deleteList(id, userId);
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/jobs/{id}").build(job.getId()))
+                .body(cascadeDeleteJobMapper.toResponse(job));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.erailea.todoappclone.dto;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of an account archive, holding either a list or a note. A list always comes before its notes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ArchiveEntry(TodoList list, Note note) {
+    public static ArchiveEntry of(TodoList list) {
+        return new ArchiveEntry(list, null);
+    }
+
+    public static ArchiveEntry of(Note note) {
+        return new ArchiveEntry(null, note);
+    }
+}
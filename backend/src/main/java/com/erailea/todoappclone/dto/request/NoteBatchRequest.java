@@ -0,0 +1,17 @@
+package com.erailea.todoappclone.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NoteBatchRequest {
+    public static final int MAX_OPERATIONS = 100;
+
+    // Each operation is validated on its own, so one bad entry fails only its own result
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "A batch holds at most " + MAX_OPERATIONS + " operations")
+    private List<NoteOperation> operations;
+}
@@ -0,0 +1,30 @@
+package com.erailea.todoappclone.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * One entry of a note batch. CREATE needs {@code listId} and {@code note}, UPDATE needs {@code id} and
+ * {@code changes}, DELETE needs {@code id}. The bodies are validated with the same rules as the single-note
+ * endpoints.
+ */
+@Data
+public class NoteOperation {
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type op;
+
+    private String id;
+
+    private String listId;
+
+    @Valid
+    private CreateNoteRequest note;
+
+    @Valid
+    private UpdateNoteRequest changes;
+}
@@ -0,0 +1,21 @@
+package com.erailea.todoappclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CascadeDeleteJobResponse {
+    private String id;
+    private String listId;
+    private String status;
+    private long notesDeleted;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
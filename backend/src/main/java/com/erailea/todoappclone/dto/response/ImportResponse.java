@@ -0,0 +1,16 @@
+package com.erailea.todoappclone.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+    private long listsImported;
+    private long notesImported;
+
+    // Entries that were invalid, referenced a list missing from the archive, or collided with an existing id
+    private long skipped;
+}
@@ -0,0 +1,31 @@
+package com.erailea.todoappclone.dto.response;
+
+import com.erailea.todoappclone.model.Note;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteBatchResult {
+    // Position of the operation in the request
+    private int index;
+
+    // HTTP status the operation would have had on its own endpoint
+    private int status;
+
+    private Note note;
+    private String errorCode;
+    private String message;
+
+    public static NoteBatchResult ok(int index, int status, Note note) {
+        return new NoteBatchResult(index, status, note, null, null);
+    }
+
+    public static NoteBatchResult failed(int index, int status, String errorCode, String message) {
+        return new NoteBatchResult(index, status, null, errorCode, message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.erailea.todoappclone.dto.response;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Lists and notes changed since the checkpoint; soft-deleted ones carry deletedAt
+    private List<TodoList> lists;
+    private List<Note> notes;
+
+    // Checkpoint to pass as since on the next sync
+    private String next;
+}
@@ -0,0 +1,26 @@
+package com.erailea.todoappclone.events;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+
+/**
+ * A write to one of the user's lists or notes, pushed to the user's open event streams. Carries the user's
+ * version after the write, which is also the version in the ETag of a read made after it.
+ */
+public record ChangeEvent(Entity entity, Action action, String id, String listId, long version) {
+    public enum Entity {
+        LIST, NOTE
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ChangeEvent of(Action action, TodoList list, long version) {
+        return new ChangeEvent(Entity.LIST, action, list.getId(), list.getId(), version);
+    }
+
+    public static ChangeEvent of(Action action, Note note, long version) {
+        return new ChangeEvent(Entity.NOTE, action, note.getId(), note.getListId(), version);
+    }
+}
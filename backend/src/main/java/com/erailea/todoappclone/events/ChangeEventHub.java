@@ -0,0 +1,142 @@
+package com.erailea.todoappclone.events;
+
+import com.erailea.todoappclone.config.EventsConfig;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans change events out to the open event streams of their user on this node. Publishing only reads the
+ * registry and hands the event to each stream's bounded buffer, so a write never waits on a client. Streams
+ * hold no thread while idle; each one is written by the MVC task executor only when it has something to send.
+ * The user's version is polled once per user, however many streams the user has open on this node.
+ * A stream whose buffer overflows is sent a resync and closed, and the client reloads through GET /sync.
+ */
+@Component
+public class ChangeEventHub {
+    static final String CHANGE = "change";
+    static final String RESYNC = "resync";
+
+    private final UserVersionRepository userVersionRepository;
+    private final EventsConfig config;
+    private final Map<String, Set<FluxSink<ChangeEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Flux<Long>> versionPolls = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter resyncs;
+
+    public ChangeEventHub(UserVersionRepository userVersionRepository,
+                          EventsConfig config,
+                          MeterRegistry meterRegistry) {
+        this.userVersionRepository = userVersionRepository;
+        this.config = config;
+        this.resyncs = meterRegistry.counter("events.resyncs");
+        meterRegistry.gauge("events.connections", connections);
+    }
+
+    public void publish(String userId, ChangeEvent event) {
+        Set<FluxSink<ChangeEvent>> sinks = subscribers.get(userId);
+        if (sinks != null) {
+            sinks.forEach(sink -> sink.next(event));
+        }
+    }
+
+    /**
+     * Opens a stream of the user's change events. Every event carries the user's version as its id. The shared
+     * version poll is compared with the last version the stream queued, so a change published on another node
+     * still reaches the client as a resync. A client reconnecting with the {@code Last-Event-ID} of an older
+     * version is sent a resync first, since nodes keep no history of events to replay. The stream completes
+     * after {@code events.max-duration} and the client reconnects, so no stream holds its connection forever.
+     */
+    public Flux<ServerSentEvent<ChangeEvent>> subscribe(String userId, String lastEventId) {
+        return userVersionRepository.current(userId).flatMapMany(version -> {
+            // Highest version this stream has queued, either as a change or as a resync
+            AtomicLong seen = new AtomicLong(version);
+            Flux<ServerSentEvent<ChangeEvent>> missed = Flux.empty();
+            if (lastEventId != null && parseVersion(lastEventId) < version) {
+                resyncs.increment();
+                missed = Flux.just(resync(version));
+            }
+            Flux<ServerSentEvent<ChangeEvent>> changes = Flux.<ChangeEvent>create(sink -> register(userId, sink))
+                    .doOnNext(event -> seen.accumulateAndGet(event.version(), Math::max))
+                    .onBackpressureBuffer(config.getBufferSize(), BufferOverflowStrategy.ERROR)
+                    .map(event -> ServerSentEvent.builder(event).event(CHANGE).id(Long.toString(event.version())).build());
+            Flux<ServerSentEvent<ChangeEvent>> remoteChanges = Flux.defer(() -> versionPoll(userId))
+                    .filter(current -> current > seen.getAndAccumulate(current, Math::max))
+                    .map(ChangeEventHub::resync);
+            Flux<ServerSentEvent<ChangeEvent>> heartbeats = Flux.interval(config.getHeartbeat())
+                    .map(tick -> ServerSentEvent.<ChangeEvent>builder().comment("heartbeat").build());
+            // Prefetch of 1 so events wait in the bounded buffer rather than in merge's own queue
+            return missed.concatWith(Flux.merge(1, changes, remoteChanges, heartbeats))
+                    .take(config.getMaxDuration())
+                    .onErrorResume(Exceptions::isOverflow, e -> {
+                        resyncs.increment();
+                        return Flux.just(resync(seen.get()));
+                    });
+        });
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    int versionPollCount() {
+        return versionPolls.size();
+    }
+
+    // One read per interval for all of the user's streams; refCount stops it when the last one cancels
+    private Flux<Long> versionPoll(String userId) {
+        return versionPolls.computeIfAbsent(userId, key -> Flux.interval(config.getVersionCheck())
+                .concatMap(tick -> userVersionRepository.current(key))
+                .publish()
+                .refCount());
+    }
+
+    private void register(String userId, FluxSink<ChangeEvent> sink) {
+        // compute keeps a concurrent unregister from dropping the set this sink was just added to
+        subscribers.compute(userId, (key, sinks) -> {
+            Set<FluxSink<ChangeEvent>> registered = sinks == null ? ConcurrentHashMap.newKeySet() : sinks;
+            registered.add(sink);
+            return registered;
+        });
+        connections.incrementAndGet();
+        sink.onDispose(() -> unregister(userId, sink));
+    }
+
+    private void unregister(String userId, FluxSink<ChangeEvent> sink) {
+        subscribers.computeIfPresent(userId, (key, sinks) -> {
+            if (sinks.remove(sink)) {
+                connections.decrementAndGet();
+            }
+            if (sinks.isEmpty()) {
+                versionPolls.remove(userId);
+                return null;
+            }
+            return sinks;
+        });
+    }
+
+    // An id this server did not issue cannot be trusted to be current
+    private static long parseVersion(String eventId) {
+        try {
+            return Long.parseLong(eventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ServerSentEvent<ChangeEvent> resync(long version) {
+        return ServerSentEvent.<ChangeEvent>builder().event(RESYNC).id(Long.toString(version)).build();
+    }
+}
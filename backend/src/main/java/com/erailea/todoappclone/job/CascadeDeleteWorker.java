@@ -0,0 +1,187 @@
+package com.erailea.todoappclone.job;
+
+import com.erailea.todoappclone.config.CascadeDeleteConfig;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.repository.CascadeDeleteJobRepository;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@link CascadeDeleteJob}s on a bounded pool. New jobs are handed over directly by the request that
+ * created them; the poll picks up anything that could not be started then, including jobs left behind by a
+ * node that stopped mid-way. Each chunk is followed by a checkpoint that also renews the lease, so losing the
+ * lease to another node surfaces as a CAS failure and this worker backs off. A job is written before its list is
+ * marked deleted, so the worker marks the list itself when the request that wrote the job failed in between.
+ */
+@Slf4j
+@Component
+public class CascadeDeleteWorker {
+    private final CascadeDeleteJobRepository jobRepository;
+    private final NoteRepository noteRepository;
+    private final TodoListRepository todoListRepository;
+    private final UserVersionRepository userVersionRepository;
+    private final CascadeDeleteConfig config;
+    private final String workerId = UUID.randomUUID().toString();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    private final Counter notesDeleted;
+    private final Counter jobsCompleted;
+    private final Counter jobsFailed;
+
+    public CascadeDeleteWorker(CascadeDeleteJobRepository jobRepository,
+                               NoteRepository noteRepository,
+                               TodoListRepository todoListRepository,
+                               UserVersionRepository userVersionRepository,
+                               CascadeDeleteConfig config,
+                               MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.noteRepository = noteRepository;
+        this.todoListRepository = todoListRepository;
+        this.userVersionRepository = userVersionRepository;
+        this.config = config;
+        this.executor = new ThreadPoolExecutor(config.getWorkerThreads(), config.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getWorkerThreads()));
+        this.notesDeleted = meterRegistry.counter("cascade.delete.notes");
+        this.jobsCompleted = meterRegistry.counter("cascade.delete.jobs", "outcome", "completed");
+        this.jobsFailed = meterRegistry.counter("cascade.delete.jobs", "outcome", "failed");
+        meterRegistry.gauge("cascade.delete.jobs.active", inFlight, Set::size);
+    }
+
+    public void submit(CascadeDeleteJob job) {
+        if (!inFlight.add(job.getId())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(job.getId());
+                } finally {
+                    inFlight.remove(job.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool is saturated; the job stays queued in Couchbase for the next poll
+            inFlight.remove(job.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lists.cascade-delete.poll-interval:5000}")
+    public void poll() {
+        int capacity = config.getWorkerThreads() * 2 - inFlight.size();
+        if (capacity <= 0) {
+            return;
+        }
+        List<CascadeDeleteJob> claimable = jobRepository.findClaimable(System.currentTimeMillis(), capacity);
+        claimable.forEach(this::submit);
+    }
+
+    void process(String jobId) {
+        CascadeDeleteJob job = claim(jobId);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            if (todoListRepository.findActiveById(job.getListId()).isPresent()) {
+                // Notes must not go before their list does, or the list would be shown without them
+                todoListRepository.markDeleted(job.getListId(), job.getDeletedAt());
+                userVersionRepository.bump(job.getUserId());
+            }
+            long deleted;
+            do {
+                deleted = noteRepository.softDeleteByListId(job.getListId(), job.getDeletedAt(), config.getChunkSize());
+                notesDeleted.increment(deleted);
+                if (deleted > 0) {
+                    // Notes of the deleted list can still be read by id until their chunk runs
+                    userVersionRepository.bump(job.getUserId());
+                }
+                job.setNotesDeleted(job.getNotesDeleted() + deleted);
+                job = checkpoint(job);
+            } while (deleted >= config.getChunkSize());
+
+            job.setStatus(CascadeDeleteJob.Status.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            release(job, 0);
+            jobsCompleted.increment();
+            log.info("Cascade delete {} for list {} completed: {} notes", job.getId(), job.getListId(), job.getNotesDeleted());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Cascade delete {} was taken over by another worker", jobId);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        }
+    }
+
+    private CascadeDeleteJob claim(String jobId) {
+        CascadeDeleteJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()
+                || (job.getLeaseOwner() != null && job.getLeaseExpiresAt() > System.currentTimeMillis())) {
+            return null;
+        }
+
+        job.setStatus(CascadeDeleteJob.Status.RUNNING);
+        job.setLeaseOwner(workerId);
+        job.setAttempts(job.getAttempts() + 1);
+        try {
+            return checkpoint(job);
+        } catch (OptimisticLockingFailureException e) {
+            // Another worker claimed it first
+            return null;
+        }
+    }
+
+    private CascadeDeleteJob checkpoint(CascadeDeleteJob job) {
+        job.setLeaseExpiresAt(System.currentTimeMillis() + config.getLease().toMillis());
+        job.setUpdatedAt(LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    private void fail(CascadeDeleteJob job, RuntimeException e) {
+        log.error("Cascade delete {} for list {} failed on attempt {}", job.getId(), job.getListId(), job.getAttempts(), e);
+        job.setLastError(e.getMessage());
+        long retryAt = 0;
+        if (job.getAttempts() >= config.getMaxAttempts()) {
+            job.setStatus(CascadeDeleteJob.Status.FAILED);
+            jobsFailed.increment();
+        } else {
+            // Back off for one lease period before the poll picks it up again
+            job.setStatus(CascadeDeleteJob.Status.PENDING);
+            retryAt = System.currentTimeMillis() + config.getLease().toMillis();
+        }
+        try {
+            release(job, retryAt);
+        } catch (RuntimeException releaseError) {
+            // The lease will lapse on its own and the job is retried from its last checkpoint
+            log.warn("Could not release cascade delete {}", job.getId(), releaseError);
+        }
+    }
+
+    private void release(CascadeDeleteJob job, long claimableAt) {
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(claimableAt);
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
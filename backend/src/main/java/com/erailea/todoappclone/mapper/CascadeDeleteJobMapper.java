@@ -0,0 +1,10 @@
+package com.erailea.todoappclone.mapper;
+
+import com.erailea.todoappclone.dto.response.CascadeDeleteJobResponse;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface CascadeDeleteJobMapper {
+    CascadeDeleteJobResponse toResponse(CascadeDeleteJob job);
+}
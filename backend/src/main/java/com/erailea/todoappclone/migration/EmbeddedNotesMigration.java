@@ -0,0 +1,99 @@
+package com.erailea.todoappclone.migration;
+
+import com.erailea.todoappclone.config.EmbeddedNotesConfig;
+import com.erailea.todoappclone.model.EmbeddedNote;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves existing lists between the plain and embedded storage modes, selected by
+ * {@code lists.embedded-notes.migration}. Note documents stay authoritative in both modes, so EMBED rebuilds each
+ * list's copy from them (oldest notes first, up to the cap) and EXTRACT only drops the copies.
+ * Run EMBED while note writes are quiet; a note created mid-batch may be missing from its list until re-run.
+ */
+@Slf4j
+@Component
+public class EmbeddedNotesMigration implements ApplicationRunner {
+    private final TodoListRepository todoListRepository;
+    private final NoteRepository noteRepository;
+    private final EmbeddedNotesConfig embeddedNotesConfig;
+    private final int batchSize;
+
+    public EmbeddedNotesMigration(TodoListRepository todoListRepository,
+                                  NoteRepository noteRepository,
+                                  EmbeddedNotesConfig embeddedNotesConfig,
+                                  @Value("${lists.embedded-notes.migration-batch-size:200}") int batchSize) {
+        this.todoListRepository = todoListRepository;
+        this.noteRepository = noteRepository;
+        this.embeddedNotesConfig = embeddedNotesConfig;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        EmbeddedNotesConfig.Migration migration = embeddedNotesConfig.getMigration();
+        if (migration == EmbeddedNotesConfig.Migration.NONE) {
+            return;
+        }
+
+        String lastId = "";
+        int migrated = 0;
+        int overflowed = 0;
+
+        List<TodoList> batch;
+        do {
+            batch = todoListRepository.findActiveBatchAfterId(lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            if (migration == EmbeddedNotesConfig.Migration.EMBED) {
+                overflowed += embed(batch);
+            } else {
+                batch.forEach(list -> todoListRepository.removeEmbeddedNotes(list.getId()));
+            }
+            migrated += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+
+        log.info("Embedded notes migration {} finished: {} lists, {} overflowed", migration, migrated, overflowed);
+    }
+
+    private int embed(List<TodoList> lists) {
+        List<String> listIds = lists.stream()
+                .map(TodoList::getId)
+                .collect(Collectors.toList());
+        Map<String, List<Note>> notesByListId = noteRepository.findAllByListIdInAndDeletedAtIsNull(listIds).stream()
+                .collect(Collectors.groupingBy(Note::getListId));
+
+        int overflowed = 0;
+        for (TodoList list : lists) {
+            List<Note> notes = notesByListId.getOrDefault(list.getId(), Collections.emptyList());
+            boolean overflow = notes.size() > embeddedNotesConfig.getMaxSize();
+
+            Map<String, EmbeddedNote> embedded = notes.stream()
+                    .sorted(Comparator.comparing(Note::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .limit(embeddedNotesConfig.getMaxSize())
+                    .collect(Collectors.toMap(Note::getId, EmbeddedNote::of, (a, b) -> a, LinkedHashMap::new));
+            todoListRepository.replaceEmbeddedNotes(list.getId(), embedded, overflow);
+            if (overflow) {
+                overflowed++;
+            }
+        }
+        return overflowed;
+    }
+}
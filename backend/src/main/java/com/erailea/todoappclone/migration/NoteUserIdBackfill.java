@@ -0,0 +1,98 @@
+package com.erailea.todoappclone.migration;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the owning list's userId onto notes written before {@link Note#getUserId()} existed.
+ * Notes are walked in key order so orphans (notes whose list is gone) are skipped instead of re-read forever.
+ * Only the userId path is written, under the note's CAS, so a note edited meanwhile is skipped rather than
+ * overwritten; the edit itself stores the userId. The walk runs on its own thread so startup is not held up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notes.user-id-backfill.enabled", havingValue = "true")
+public class NoteUserIdBackfill implements ApplicationRunner {
+    private final NoteRepository noteRepository;
+    private final TodoListRepository todoListRepository;
+    private final int batchSize;
+
+    public NoteUserIdBackfill(NoteRepository noteRepository,
+                              TodoListRepository todoListRepository,
+                              @Value("${notes.user-id-backfill.batch-size:500}") int batchSize) {
+        this.noteRepository = noteRepository;
+        this.todoListRepository = todoListRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofPlatform().daemon().name("note-user-id-backfill").start(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Note userId backfill failed", e);
+            }
+        });
+    }
+
+    void backfill() {
+        String lastId = "";
+        int updated = 0;
+        int orphaned = 0;
+        int conflicts = 0;
+
+        List<Note> batch;
+        do {
+            batch = noteRepository.findBatchWithoutUserIdAfterId(lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<String> listIds = batch.stream()
+                    .map(Note::getListId)
+                    .distinct()
+                    .collect(Collectors.toList());
+            Map<String, String> ownerByListId = new HashMap<>();
+            for (TodoList list : todoListRepository.findAllById(listIds)) {
+                if (list.getUserId() != null) {
+                    ownerByListId.put(list.getId(), list.getUserId());
+                } else {
+                    log.warn("Skipping notes of list {}: the list has no userId", list.getId());
+                }
+            }
+
+            for (Note note : batch) {
+                String owner = ownerByListId.get(note.getListId());
+                if (owner == null) {
+                    orphaned++;
+                    continue;
+                }
+                try {
+                    noteRepository.patch(note.getId(), note.getVersion(), Map.of("userId", owner));
+                    updated++;
+                } catch (OptimisticLockingFailureException e) {
+                    log.info("Skipping note {}: it changed during the backfill", note.getId());
+                    conflicts++;
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+
+        log.info("Note userId backfill finished: {} updated, {} orphaned, {} conflicts", updated, orphaned, conflicts);
+    }
+}
@@ -0,0 +1,72 @@
+package com.erailea.todoappclone.migration;
+
+import com.erailea.todoappclone.model.User;
+import com.erailea.todoappclone.model.UserEmailLookup;
+import com.erailea.todoappclone.repository.UserEmailLookupRepository;
+import com.erailea.todoappclone.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes the missing {@link UserEmailLookup} documents for users created before lookups existed.
+ * Safe to run repeatedly. A run without conflicts writes the completion marker, which switches off the
+ * users.email-lookup.legacy-fallback query path on every node.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.email-lookup.backfill-on-startup", havingValue = "true")
+public class UserEmailLookupBackfill implements ApplicationRunner {
+    private final UserRepository userRepository;
+    private final UserEmailLookupRepository userEmailLookupRepository;
+    private final int batchSize;
+
+    public UserEmailLookupBackfill(UserRepository userRepository,
+                                   UserEmailLookupRepository userEmailLookupRepository,
+                                   @Value("${users.email-lookup.backfill-batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.userEmailLookupRepository = userEmailLookupRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String lastId = "";
+        int created = 0;
+        int conflicts = 0;
+
+        List<User> batch;
+        do {
+            batch = userRepository.findBatchAfterId(lastId, batchSize);
+            for (User user : batch) {
+                try {
+                    userEmailLookupRepository.insert(UserEmailLookup.of(user.getEmail(), user.getId()));
+                    created++;
+                } catch (DuplicateKeyException e) {
+                    if (!isOwnedBy(user)) {
+                        conflicts++;
+                        log.warn("Email lookup for user {} is already claimed by another user", user.getId());
+                    }
+                }
+                lastId = user.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        log.info("Email lookup backfill finished: {} created, {} conflicts", created, conflicts);
+        if (conflicts == 0) {
+            userEmailLookupRepository.save(new UserEmailLookup(UserEmailLookup.BACKFILL_COMPLETE_KEY, null));
+        }
+    }
+
+    private boolean isOwnedBy(User user) {
+        return userEmailLookupRepository.findById(UserEmailLookup.keyFor(user.getEmail()))
+                .map(lookup -> user.getId().equals(lookup.getUserId()))
+                .orElse(false);
+    }
+}
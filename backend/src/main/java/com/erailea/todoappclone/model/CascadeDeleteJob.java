@@ -0,0 +1,71 @@
+package com.erailea.todoappclone.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.couchbase.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of a list whose notes still have to be soft deleted. The job document doubles as the queue
+ * entry and the checkpoint: workers claim it by writing a lease under CAS and persist progress after every chunk,
+ * so a job abandoned by a stopped node is picked up again once its lease expires. A list has at most one job,
+ * keyed by the list id, so retrying a delete finds the job the first attempt wrote.
+ */
+@Data
+@NoArgsConstructor
+@Document
+public class CascadeDeleteJob {
+    public static final String KEY_PREFIX = "cascade-delete::";
+
+    @Id
+    private String id;
+
+    private String listId;
+    private String userId;
+    private Status status;
+
+    // Timestamp stamped on every note, the same one the list was deleted with
+    private LocalDateTime deletedAt;
+
+    private long notesDeleted;
+    private int attempts;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    // Worker currently holding the job and when its claim lapses (epoch millis, 0 when unclaimed)
+    private String leaseOwner;
+    private long leaseExpiresAt;
+
+    @Version
+    private long version;
+
+    public static CascadeDeleteJob forList(TodoList list) {
+        CascadeDeleteJob job = new CascadeDeleteJob();
+        job.setId(keyFor(list.getId()));
+        job.setListId(list.getId());
+        job.setUserId(list.getUserId());
+        job.setStatus(Status.PENDING);
+        job.setDeletedAt(list.getDeletedAt());
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        return job;
+    }
+
+    public static String keyFor(String listId) {
+        return KEY_PREFIX + listId;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
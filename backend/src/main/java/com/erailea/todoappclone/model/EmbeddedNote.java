@@ -0,0 +1,37 @@
+package com.erailea.todoappclone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Copy of an active {@link Note} kept inside its parent {@link TodoList} document, keyed by note id.
+ * The list and owner are implied by the parent, so only the fields a list render needs are stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddedNote {
+    private String content;
+    private boolean done;
+    private LocalDateTime createdAt;
+    private LocalDateTime dueDate;
+
+    public static EmbeddedNote of(Note note) {
+        return new EmbeddedNote(note.getContent(), note.isDone(), note.getCreatedAt(), note.getDueDate());
+    }
+
+    public Note toNote(String id, TodoList list) {
+        return new Note(id, content, done, createdAt, dueDate, list.getId(), list.getUserId(), null, null, 0);
+    }
+
+    public static List<Note> toNotes(TodoList list) {
+        return list.getNotes().entrySet().stream()
+                .map(entry -> entry.getValue().toNote(entry.getKey(), list))
+                .collect(Collectors.toList());
+    }
+}
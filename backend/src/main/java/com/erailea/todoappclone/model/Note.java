@@ -1,5 +1,6 @@
 package com.erailea.todoappclone.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -7,18 +8,25 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.couchbase.core.mapping.Document;
 import org.springframework.data.couchbase.core.mapping.Field;
 import org.springframework.data.couchbase.core.mapping.id.GeneratedValue;
 import org.springframework.data.couchbase.core.mapping.id.GenerationStrategy;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
-public class Note {
+public class Note implements SoftDeletable {
+    // Display order within a list: by due date with undated notes last, then by creation time
+    public static final Comparator<Note> DUE_DATE_ORDER = Comparator
+            .<Note, LocalDateTime>comparing(Note::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Note::getCreatedAt);
+
     @Id
     @GeneratedValue(strategy = GenerationStrategy.UNIQUE)
     private String id;
@@ -32,7 +40,18 @@ public class Note {
     private LocalDateTime createdAt;
     private LocalDateTime dueDate;
     private String listId;
+
+    // Owner of the parent list, denormalized so ownership is checked with the note fetch itself
+    private String userId;
     
     @Field
     private LocalDateTime deletedAt;
+
+    // Stamped by every write, including soft deletes, so clients can sync only what changed
+    private LocalDateTime updatedAt;
+
+    // CAS of the document as read; writes fail instead of overwriting a concurrent change
+    @Version
+    @JsonIgnore
+    private long version;
 } 
\ No newline at end of file
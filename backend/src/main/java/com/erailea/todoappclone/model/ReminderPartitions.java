@@ -0,0 +1,37 @@
+package com.erailea.todoappclone.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.couchbase.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single document assigning the reminder partitions to nodes. Every node rewrites it under CAS on each poll to
+ * renew its lease, so live nodes, their leases and partition ownership always change together.
+ */
+@Data
+@NoArgsConstructor
+@Document
+public class ReminderPartitions {
+    public static final String ID = "reminder::partitions";
+    // Owner of a partition no node holds
+    public static final String FREE = "";
+
+    @Id
+    private String id = ID;
+
+    // Live node ids and when their lease lapses (epoch millis)
+    private Map<String, Long> nodes = new HashMap<>();
+
+    // Owning node id per partition, FREE when unowned
+    private List<String> owners = new ArrayList<>();
+
+    @Version
+    private long version;
+}
@@ -0,0 +1,7 @@
+package com.erailea.todoappclone.model;
+
+import java.time.LocalDateTime;
+
+public interface SoftDeletable {
+    LocalDateTime getDeletedAt();
+}
@@ -1,5 +1,6 @@
 package com.erailea.todoappclone.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -13,12 +14,13 @@ import org.springframework.data.couchbase.core.mapping.id.GeneratedValue;
 import org.springframework.data.couchbase.core.mapping.id.GenerationStrategy;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
-public class TodoList {
+public class TodoList implements SoftDeletable {
     @Id
     @GeneratedValue(strategy = GenerationStrategy.UNIQUE)
     private String id;
@@ -33,4 +35,15 @@ public class TodoList {
     
     @Field
     private LocalDateTime deletedAt = null;
+
+    // Stamped by every write to the list itself, including soft deletes; embedded note changes do not count
+    private LocalDateTime updatedAt;
+
+    // Active notes keyed by note id when the list uses embedded storage; null for lists that don't
+    @JsonIgnore
+    private Map<String, EmbeddedNote> notes;
+
+    // Set once the embedded map hits its cap; later notes live only in their own documents
+    @JsonIgnore
+    private boolean notesOverflow;
 } 
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.erailea.todoappclone.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.couchbase.core.mapping.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Points an email address at the owning user's document id so users can be resolved with KV gets.
+ * The document key is derived from the email, which makes inserting it an atomic uniqueness check.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class UserEmailLookup {
+    public static final String KEY_PREFIX = "user::email::";
+    /** Written by the backfill once every user has a lookup document; outside the {@link #KEY_PREFIX} space. */
+    public static final String BACKFILL_COMPLETE_KEY = "user::email-lookup::backfill-complete";
+    private static final int MAX_KEY_BYTES = 250;
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    public static UserEmailLookup of(String email, String userId) {
+        return new UserEmailLookup(keyFor(email), userId);
+    }
+
+    public static String keyFor(String email) {
+        String key = KEY_PREFIX + email;
+        if (key.getBytes(StandardCharsets.UTF_8).length <= MAX_KEY_BYTES) {
+            return key;
+        }
+        // Couchbase keys are capped at 250 bytes, long addresses fall back to a digest
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(email.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + "sha256::" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.erailea.todoappclone.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-ordered result and the opaque cursor that continues after it, or {@code null} on the
+ * last page. Pages are read with one row more than requested so the last page is known without a count.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+    public static final int MAX_SIZE = 200;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static int size(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    /**
+     * Builds a page from up to {@code size + 1} rows fetched in cursor order.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * The items as the response body, with the cursor for the next page in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
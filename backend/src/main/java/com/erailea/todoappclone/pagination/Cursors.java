@@ -0,0 +1,61 @@
+package com.erailea.todoappclone.pagination;
+
+import com.erailea.todoappclone.exception.BusinessException;
+import org.springframework.data.couchbase.core.convert.CouchbaseJsr310Converters;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encoding shared by the cursor types. Keys are written the way Couchbase stores them, so a cursor can be bound
+ * straight into the query that continues after it.
+ */
+final class Cursors {
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0L : CouchbaseJsr310Converters.LocalDateTimeToLongConverter.INSTANCE.convert(dateTime);
+    }
+
+    /**
+     * Encodes the key parts behind a type tag, so a cursor from one endpoint is rejected by another.
+     */
+    static String encode(String type, Object... parts) {
+        StringBuilder raw = new StringBuilder(type);
+        for (Object part : parts) {
+            raw.append(SEPARATOR).append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decode(String cursor, String type, int parts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The id is last, so splitting into a fixed number of parts keeps it intact whatever it contains
+            String[] decoded = raw.split("\\" + SEPARATOR, parts + 1);
+            if (decoded.length == parts + 1 && type.equals(decoded[0])) {
+                return Arrays.copyOfRange(decoded, 1, decoded.length);
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64; reported below like any other malformed cursor
+        }
+        throw invalid();
+    }
+
+    static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("INVALID_CURSOR", "Cursor is malformed or from another endpoint");
+    }
+}
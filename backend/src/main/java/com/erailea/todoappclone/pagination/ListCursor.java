@@ -0,0 +1,31 @@
+package com.erailea.todoappclone.pagination;
+
+import com.erailea.todoappclone.model.TodoList;
+
+/**
+ * Position in a user's lists, ordered newest first by {@code (createdAt, id)}.
+ */
+public record ListCursor(long createdAt, String id) {
+    private static final String TYPE = "list";
+
+    /**
+     * Sorts before every list, for the first page.
+     */
+    public static final ListCursor START = new ListCursor(Long.MAX_VALUE, "");
+
+    public static ListCursor of(TodoList list) {
+        return new ListCursor(Cursors.epochMillis(list.getCreatedAt()), list.getId());
+    }
+
+    public static ListCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        String[] parts = Cursors.decode(cursor, TYPE, 2);
+        return new ListCursor(Cursors.parseLong(parts[0]), parts[1]);
+    }
+
+    public String encode() {
+        return Cursors.encode(TYPE, createdAt, id);
+    }
+}
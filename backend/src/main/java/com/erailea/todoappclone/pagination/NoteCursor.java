@@ -0,0 +1,55 @@
+package com.erailea.todoappclone.pagination;
+
+import com.erailea.todoappclone.model.Note;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Position in a list's notes, ordered by due date with undated notes last, then {@code (createdAt, id)}.
+ * Undated notes sort under {@link #UNDATED}, which the note page query substitutes for a missing due date.
+ */
+public record NoteCursor(long dueDate, long createdAt, String id) implements Comparable<NoteCursor> {
+    /**
+     * 9999-12-31T23:59:59.999Z in epoch millis, later than any real due date.
+     */
+    public static final long UNDATED = 253402300799999L;
+
+    /**
+     * Sorts before every note, for the first page.
+     */
+    public static final NoteCursor START = new NoteCursor(Long.MIN_VALUE, Long.MIN_VALUE, "");
+
+    private static final String TYPE = "note";
+    private static final Comparator<NoteCursor> ORDER = Comparator.comparingLong(NoteCursor::dueDate)
+            .thenComparingLong(NoteCursor::createdAt)
+            .thenComparing(NoteCursor::id);
+
+    public static NoteCursor of(Note note) {
+        return new NoteCursor(dueDateKey(note.getDueDate()), Cursors.epochMillis(note.getCreatedAt()), note.getId());
+    }
+
+    /**
+     * A due date as the note queries compare it, {@link #UNDATED} for none.
+     */
+    public static long dueDateKey(LocalDateTime dueDate) {
+        return dueDate == null ? UNDATED : Cursors.epochMillis(dueDate);
+    }
+
+    public static NoteCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        String[] parts = Cursors.decode(cursor, TYPE, 3);
+        return new NoteCursor(Cursors.parseLong(parts[0]), Cursors.parseLong(parts[1]), parts[2]);
+    }
+
+    public String encode() {
+        return Cursors.encode(TYPE, dueDate, createdAt, id);
+    }
+
+    @Override
+    public int compareTo(NoteCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,23 @@
+package com.erailea.todoappclone.pagination;
+
+/**
+ * Checkpoint of an incremental sync: changes stamped at or after {@code since} (epoch millis) are still to be
+ * sent. Tokens are issued a skew window behind the server clock, so writes stamped by a slower node or still
+ * in flight when the token was issued are picked up by the next sync instead of being skipped.
+ */
+public record SyncToken(long since) {
+    private static final String TYPE = "sync";
+
+    public static SyncToken issuedAt(long nowMillis, long skewWindowMillis) {
+        return new SyncToken(nowMillis - skewWindowMillis);
+    }
+
+    public static SyncToken decode(String token) {
+        String[] parts = Cursors.decode(token, TYPE, 1);
+        return new SyncToken(Cursors.parseLong(parts[0]));
+    }
+
+    public String encode() {
+        return Cursors.encode(TYPE, since);
+    }
+}
@@ -0,0 +1,14 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.model.Note;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LogReminderSink implements ReminderSink {
+    @Override
+    public void deliver(Note note) {
+        log.info("Note {} of user {} is due at {}", note.getId(), note.getUserId(), note.getDueDate());
+    }
+}
@@ -0,0 +1,102 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.config.ReminderConfig;
+import com.erailea.todoappclone.model.ReminderPartitions;
+import com.erailea.todoappclone.repository.ReminderPartitionsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * This node's share of the reminder partitions, leased through {@link ReminderPartitions}. Each refresh renews
+ * the node's lease, frees the partitions of nodes whose lease lapsed, gives back partitions beyond an even share
+ * so nodes that joined get some, and claims free ones up to that share.
+ */
+@Slf4j
+@Component
+public class PartitionLeases {
+    private final ReminderPartitionsRepository repository;
+    private final ReminderConfig config;
+    private final String nodeId = UUID.randomUUID().toString();
+    private Set<Integer> owned = Set.of();
+    private long ownedUntil;
+
+    public PartitionLeases(ReminderPartitionsRepository repository, ReminderConfig config) {
+        this.repository = repository;
+        this.config = config;
+    }
+
+    /**
+     * Renews the lease and rebalances, returning the partitions this node now owns. When the write loses a race
+     * with another node, the partitions of the previous refresh are kept until their lease lapses.
+     */
+    public synchronized Set<Integer> refresh(long now) {
+        ReminderPartitions partitions = repository.findById(ReminderPartitions.ID).orElseGet(ReminderPartitions::new);
+        long expiresAt = now + config.getLease().toMillis();
+        Set<Integer> mine = rebalance(partitions, nodeId, now, expiresAt, config.getPartitions());
+        try {
+            repository.save(partitions);
+            owned = mine;
+            ownedUntil = expiresAt;
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            log.debug("Reminder partitions were changed by another node, retrying on the next poll");
+        }
+        return now < ownedUntil ? owned : Set.of();
+    }
+
+    /**
+     * Frees this node's partitions so other nodes take them over on their next poll instead of after the lease.
+     */
+    public synchronized void releaseAll() {
+        try {
+            repository.findById(ReminderPartitions.ID).ifPresent(partitions -> {
+                partitions.getNodes().remove(nodeId);
+                partitions.getOwners().replaceAll(owner -> nodeId.equals(owner) ? ReminderPartitions.FREE : owner);
+                repository.save(partitions);
+            });
+        } catch (RuntimeException e) {
+            // The lease lapses on its own
+            log.warn("Could not release reminder partitions", e);
+        }
+        owned = Set.of();
+        ownedUntil = 0;
+    }
+
+    static Set<Integer> rebalance(ReminderPartitions partitions, String nodeId, long now, long expiresAt, int count) {
+        partitions.getNodes().values().removeIf(leaseExpiresAt -> leaseExpiresAt <= now);
+        partitions.getNodes().put(nodeId, expiresAt);
+
+        List<String> owners = new ArrayList<>(partitions.getOwners().subList(0, Math.min(count, partitions.getOwners().size())));
+        while (owners.size() < count) {
+            owners.add(ReminderPartitions.FREE);
+        }
+        owners.replaceAll(owner -> partitions.getNodes().containsKey(owner) ? owner : ReminderPartitions.FREE);
+
+        int share = Math.ceilDiv(count, partitions.getNodes().size());
+        Set<Integer> mine = new TreeSet<>();
+        for (int partition = 0; partition < count; partition++) {
+            if (nodeId.equals(owners.get(partition))) {
+                if (mine.size() < share) {
+                    mine.add(partition);
+                } else {
+                    owners.set(partition, ReminderPartitions.FREE);
+                }
+            }
+        }
+        for (int partition = 0; partition < count && mine.size() < share; partition++) {
+            if (owners.get(partition).equals(ReminderPartitions.FREE)) {
+                owners.set(partition, nodeId);
+                mine.add(partition);
+            }
+        }
+        partitions.setOwners(owners);
+        return mine;
+    }
+}
@@ -0,0 +1,230 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.config.ReminderConfig;
+import com.erailea.todoappclone.config.SyncConfig;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.couchbase.core.convert.CouchbaseJsr310Converters;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fires a reminder {@code reminders.lead-time} before each undone note's due date. Reminders of the partitions
+ * this node leases are held in a {@link TimingWheel} that is loaded from the due-date index one horizon ahead;
+ * writes on this node reschedule their note directly, and each poll catches up on due dates changed on other
+ * nodes. Cancellation is best effort: a due note is re-read before delivery and dropped when it or its list was
+ * deleted, it was done or moved to a later date, or it belongs to a partition this node gave up. Notes of a
+ * deleted list stay undeleted until the cascade job reaches them, so the list is checked separately.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler {
+    private final NoteRepository noteRepository;
+    private final TodoListRepository todoListRepository;
+    private final PartitionLeases partitionLeases;
+    private final List<ReminderSink> sinks;
+    private final ReminderConfig config;
+    private final SyncConfig syncConfig;
+    private final TimingWheel wheel;
+    private final Counter delivered;
+    private volatile Set<Integer> owned = Set.of();
+    // Fire times before this are loaded into the wheel for the owned partitions
+    private long loadedUntil;
+    // Notes stamped at or after this may have changed their due date since the last poll
+    private long changedSince;
+
+    public ReminderScheduler(NoteRepository noteRepository,
+                             TodoListRepository todoListRepository,
+                             PartitionLeases partitionLeases,
+                             List<ReminderSink> sinks,
+                             ReminderConfig config,
+                             SyncConfig syncConfig,
+                             MeterRegistry meterRegistry) {
+        this.noteRepository = noteRepository;
+        this.todoListRepository = todoListRepository;
+        this.partitionLeases = partitionLeases;
+        this.sinks = sinks;
+        this.config = config;
+        this.syncConfig = syncConfig;
+        long now = System.currentTimeMillis();
+        this.wheel = new TimingWheel(config.getTick(), config.getHorizon(), now);
+        this.loadedUntil = now;
+        this.changedSince = now;
+        this.delivered = meterRegistry.counter("reminders.delivered");
+        meterRegistry.gauge("reminders.pending", this, ReminderScheduler::pending);
+    }
+
+    /**
+     * Reschedules or cancels the reminder of a note written on this node.
+     */
+    public void update(Note note) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        synchronized (wheel) {
+            if (isPending(note, System.currentTimeMillis()) && owned.contains(partitionOf(note))) {
+                // Beyond the horizon the wheel refuses it, and the poll loads it once it comes into range
+                wheel.schedule(note.getId(), fireAt(note));
+            } else {
+                wheel.cancel(note.getId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@reminderConfig.pollInterval.toMillis()}")
+    public void poll() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<Integer> previous = owned;
+        owned = partitionLeases.refresh(now);
+        long scanFrom = changedSince;
+        changedSince = now - syncConfig.getSkewWindow().toMillis();
+        long horizon;
+        synchronized (wheel) {
+            horizon = wheel.horizon();
+        }
+
+        List<Integer> gained = owned.stream().filter(partition -> !previous.contains(partition)).toList();
+        if (!gained.isEmpty()) {
+            // Reaches back one lease so reminders a lost node did not get to still fire
+            load(gained, now - config.getLease().toMillis(), loadedUntil);
+            log.info("Scheduling reminders of partitions {}", gained);
+        }
+        List<Integer> partitions = List.copyOf(owned);
+        if (!partitions.isEmpty()) {
+            load(partitions, loadedUntil, horizon);
+            schedule(noteRepository.findDueChangedSince(now, horizon + leadMillis(),
+                    config.getPartitions(), partitions, scanFrom));
+        }
+        loadedUntil = horizon;
+    }
+
+    @Scheduled(fixedRateString = "#{@reminderConfig.tick.toMillis()}")
+    public void tick() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<String> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Note> notes = noteRepository.findAllActiveById(due).stream()
+                .filter(note -> isPending(note, now) && owned.contains(partitionOf(note)))
+                .toList();
+        if (notes.isEmpty()) {
+            return;
+        }
+        Set<String> activeListIds = todoListRepository.findAllActiveById(
+                        notes.stream().map(Note::getListId).collect(Collectors.toSet())).stream()
+                .map(TodoList::getId)
+                .collect(Collectors.toSet());
+        for (Note note : notes) {
+            if (!activeListIds.contains(note.getListId())) {
+                continue;
+            }
+            if (fireAt(note) > now + config.getTick().toMillis()) {
+                // Moved to a later date on another node
+                update(note);
+                continue;
+            }
+            deliver(note);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (config.isEnabled()) {
+            partitionLeases.releaseAll();
+        }
+    }
+
+    int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Loads the reminders firing in {@code [from, to)} for the given partitions, one keyset batch at a time.
+     */
+    private void load(List<Integer> partitions, long from, long to) {
+        if (from >= to) {
+            return;
+        }
+        long afterDueDate = Long.MIN_VALUE;
+        String afterId = "";
+        List<Note> batch;
+        do {
+            batch = noteRepository.findDueBatch(from + leadMillis(), to + leadMillis(), config.getPartitions(), partitions,
+                    afterDueDate, afterId, config.getLoadBatchSize());
+            schedule(batch);
+            if (!batch.isEmpty()) {
+                Note last = batch.get(batch.size() - 1);
+                afterDueDate = epochMillis(last.getDueDate());
+                afterId = last.getId();
+            }
+        } while (batch.size() >= config.getLoadBatchSize());
+    }
+
+    private void schedule(List<Note> notes) {
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            for (Note note : notes) {
+                if (isPending(note, now) && owned.contains(partitionOf(note))) {
+                    wheel.schedule(note.getId(), fireAt(note));
+                }
+            }
+        }
+    }
+
+    private void deliver(Note note) {
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.deliver(note);
+            } catch (RuntimeException e) {
+                log.warn("Reminder sink {} failed for note {}", sink.getClass().getSimpleName(), note.getId(), e);
+            }
+        }
+        delivered.increment();
+    }
+
+    private int partitionOf(Note note) {
+        return Math.floorMod(epochMillis(note.getCreatedAt()), config.getPartitions());
+    }
+
+    private long fireAt(Note note) {
+        return epochMillis(note.getDueDate()) - leadMillis();
+    }
+
+    private long leadMillis() {
+        return config.getLeadTime().toMillis();
+    }
+
+    private static boolean isPending(Note note, long now) {
+        return !note.isDone() && note.getDeletedAt() == null && note.getDueDate() != null
+                && epochMillis(note.getDueDate()) > now;
+    }
+
+    // Same conversion Couchbase stores dates with, so partitions agree with the createdAt % n of the queries
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0L : CouchbaseJsr310Converters.LocalDateTimeToLongConverter.INSTANCE.convert(dateTime);
+    }
+}
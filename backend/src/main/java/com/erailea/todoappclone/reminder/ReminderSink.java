@@ -0,0 +1,11 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.model.Note;
+
+/**
+ * Destination of due-date reminders. Every sink bean receives every reminder; delivery is at least once, so a
+ * reminder may repeat when its partition changes hands.
+ */
+public interface ReminderSink {
+    void deliver(Note note);
+}
@@ -0,0 +1,122 @@
+package com.erailea.todoappclone.reminder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of keyed deadlines with one slot per tick. The wheel spans {@code slots * tick} from the
+ * current tick and refuses deadlines beyond that, so every slot only ever holds entries due in that very tick:
+ * advancing never looks at an entry that is not due, and schedule, reschedule and cancel are O(1). A timer costs
+ * one small entry and no thread. Not thread-safe.
+ */
+class TimingWheel {
+    private final long tickMillis;
+    private final Entry[] slots;
+    private final Map<String, Entry> entries = new HashMap<>();
+    // First tick whose slot has not been expired yet
+    private long nextTick;
+
+    TimingWheel(Duration tick, Duration span, long nowMillis) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new Entry[(int) Math.ceilDiv(span.toMillis(), tickMillis)];
+        this.nextTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Deadlines before this (epoch millis) fit in the wheel.
+     */
+    long horizon() {
+        return (nextTick + slots.length) * tickMillis;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Schedules the key at the deadline, moving it if already scheduled; a deadline already passed fires on the
+     * next advance. Returns false, and drops the key, when the deadline is beyond the horizon.
+     */
+    boolean schedule(String key, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, nextTick);
+        if (tick >= nextTick + slots.length) {
+            cancel(key);
+            return false;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.slot = slot(tick);
+        entry.next = slots[entry.slot];
+        if (entry.next != null) {
+            entry.next.previous = entry;
+        }
+        slots[entry.slot] = entry;
+        return true;
+    }
+
+    boolean cancel(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Expires every tick up to and including the one at {@code nowMillis} and returns the keys that came due.
+     */
+    List<String> advance(long nowMillis) {
+        long now = nowMillis / tickMillis;
+        List<String> due = new ArrayList<>();
+        // After a pause longer than the span, one pass over the slots still expires everything in the wheel
+        long last = Math.min(now, nextTick + slots.length - 1);
+        for (; nextTick <= last; nextTick++) {
+            int slot = slot(nextTick);
+            for (Entry entry = slots[slot]; entry != null; entry = entry.next) {
+                entries.remove(entry.key);
+                due.add(entry.key);
+            }
+            slots[slot] = null;
+        }
+        nextTick = Math.max(nextTick, now + 1);
+        return due;
+    }
+
+    private int slot(long tick) {
+        return (int) (tick % slots.length);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            slots[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private int slot;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+    }
+}
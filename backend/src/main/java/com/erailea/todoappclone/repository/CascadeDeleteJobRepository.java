@@ -0,0 +1,15 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.data.couchbase.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CascadeDeleteJobRepository extends CouchbaseRepository<CascadeDeleteJob, String> {
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND status IN [\"PENDING\", \"RUNNING\"] " +
+            "AND leaseExpiresAt < $1 ORDER BY leaseExpiresAt LIMIT $2")
+    List<CascadeDeleteJob> findClaimable(long now, int limit);
+}
@@ -0,0 +1,72 @@
+package com.erailea.todoappclone.repository;
+
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.kv.GetResult;
+import com.erailea.todoappclone.model.SoftDeletable;
+import org.springframework.data.couchbase.core.CouchbaseOperations;
+import org.springframework.data.couchbase.repository.query.CouchbaseEntityInformation;
+import org.springframework.data.couchbase.repository.support.SimpleCouchbaseRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository base class that adds KV-backed lookups for {@link SoftDeleteRepository}.
+ * A raw KV get does not know the entity type, so the stored type key is compared before decoding;
+ * otherwise a note id passed where a list id is expected would decode into a {@link com.erailea.todoappclone.model.TodoList}.
+ */
+public class KeyValueCouchbaseRepository<T, ID> extends SimpleCouchbaseRepository<T, ID> {
+    private final Class<T> entityClass;
+    private final String typeKey;
+    private final String typeAlias;
+
+    public KeyValueCouchbaseRepository(CouchbaseEntityInformation<T, String> entityInformation,
+                                       CouchbaseOperations couchbaseOperations,
+                                       Class<?> repositoryInterface) {
+        super(entityInformation, couchbaseOperations, repositoryInterface);
+        this.entityClass = entityInformation.getJavaType();
+        this.typeKey = couchbaseOperations.getConverter().getTypeKey();
+        this.typeAlias = getReactiveTemplate().support().getJavaNameForEntity(entityClass);
+    }
+
+    public Optional<T> findActiveById(String id) {
+        return fetchActive(id).blockOptional();
+    }
+
+    public Mono<T> findActiveByIdReactive(String id) {
+        return fetchActive(id);
+    }
+
+    public List<T> findAllActiveById(Collection<String> ids) {
+        return Flux.fromIterable(ids)
+                .flatMap(this::fetchActive)
+                .collectList()
+                .block();
+    }
+
+    private Mono<T> fetchActive(String id) {
+        return collection().get(id)
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty())
+                .filter(result -> typeAlias.equals(result.contentAsObject().getString(typeKey)))
+                .flatMap(result -> decode(id, result))
+                .filter(entity -> ((SoftDeletable) entity).getDeletedAt() == null);
+    }
+
+    private Mono<T> decode(String id, GetResult result) {
+        String source = new String(result.contentAsBytes(), StandardCharsets.UTF_8);
+        return getReactiveTemplate().support()
+                .decodeEntity(id, source, result.cas(), entityClass, getScope(), getCollection(), null, null);
+    }
+
+    private ReactiveCollection collection() {
+        return getOperations().getCouchbaseClientFactory()
+                .withScope(getScope())
+                .getCollection(getCollection())
+                .reactive();
+    }
+}
@@ -1,25 +1,67 @@
 package com.erailea.todoappclone.repository;
 
 import com.erailea.todoappclone.model.Note;
-import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import com.erailea.todoappclone.pagination.NoteCursor;
+import com.couchbase.client.java.query.QueryScanConsistency;
 import org.springframework.data.couchbase.repository.Query;
+import org.springframework.data.couchbase.repository.ScanConsistency;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface NoteRepository extends CouchbaseRepository<Note, String> {
-    @Query("#{#n1ql.selectEntity} WHERE listId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL)")
+public interface NoteRepository extends SoftDeleteRepository<Note>, NoteRepositoryCustom {
+    /**
+     * Due date as the note queries sort it: missing and null dates sort after every real one.
+     */
+    String DUE_DATE_KEY = "IFMISSINGORNULL(dueDate, " + NoteCursor.UNDATED + ")";
+
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL)")
     List<Note> findAllByListIdAndDeletedAtIsNull(String listId);
 
-    @Query("#{#n1ql.selectEntity} WHERE listId IN $1 AND (deletedAt IS MISSING OR deletedAt IS NULL)")
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId IN $1 AND (deletedAt IS MISSING OR deletedAt IS NULL)")
     List<Note> findAllByListIdInAndDeletedAtIsNull(List<String> listIds);
 
-    @Query("#{#n1ql.selectEntity} WHERE listId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
-            "ORDER BY CASE WHEN dueDate IS NULL THEN 1 ELSE 0 END, dueDate ASC, createdAt ASC")
+    /**
+     * Notes of several lists, grouped by list and in due-date order within each, so callers can slice the result
+     * into per-list runs without re-sorting.
+     */
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId IN $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "ORDER BY listId, " + DUE_DATE_KEY + ", createdAt, meta().id")
+    List<Note> findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List<String> listIds);
+
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "ORDER BY " + DUE_DATE_KEY + ", createdAt, meta().id")
     List<Note> findAllByListIdAndDeletedAtIsNullOrderByDueDate(String listId);
 
-    @Query("#{#n1ql.selectEntity} WHERE meta().id = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL)")
-    Optional<Note> findByIdAndDeletedAtIsNull(String id);
+    /**
+     * Notes of a user stamped at or after {@code since}, soft-deleted ones included. REQUEST_PLUS so a write
+     * acknowledged before the sync is never missed because the index lags behind.
+     */
+    @ScanConsistency(query = QueryScanConsistency.REQUEST_PLUS)
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND updatedAt >= $2")
+    List<Note> findAllByUserIdChangedSince(String userId, long since);
+
+    /**
+     * Keyset batch, after {@code (dueDate, id)}, of the undone notes due in {@code [from, to)} whose creation time
+     * falls in one of the given reminder partitions out of {@code partitionCount}.
+     */
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND done = false AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "AND dueDate >= $1 AND dueDate < $2 AND createdAt % $3 IN $4 AND [dueDate, meta().id] > [$5, $6] " +
+            "ORDER BY dueDate, meta().id LIMIT $7")
+    List<Note> findDueBatch(long from, long to, int partitionCount, List<Integer> partitions,
+                            long afterDueDate, String afterId, int limit);
+
+    /**
+     * Undone notes due in {@code [from, to)} in the given reminder partitions and stamped at or after
+     * {@code since}; how reminders learn about due dates changed on other nodes.
+     */
+    @ScanConsistency(query = QueryScanConsistency.REQUEST_PLUS)
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND done = false AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "AND dueDate >= $1 AND dueDate < $2 AND createdAt % $3 IN $4 AND updatedAt >= $5")
+    List<Note> findDueChangedSince(long from, long to, int partitionCount, List<Integer> partitions, long since);
+
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND (userId IS MISSING OR userId IS NULL) AND meta().id > $1 " +
+            "ORDER BY meta().id LIMIT $2")
+    List<Note> findBatchWithoutUserIdAfterId(String lastId, int limit);
 } 
\ No newline at end of file
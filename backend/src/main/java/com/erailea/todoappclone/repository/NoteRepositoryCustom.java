@@ -0,0 +1,26 @@
+package com.erailea.todoappclone.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface NoteRepositoryCustom {
+    /**
+     * Writes only the given top-level fields of a note with a single sub-document mutation, guarded by the CAS
+     * the note was read with. Returns the new CAS, or throws
+     * {@link org.springframework.dao.OptimisticLockingFailureException} when the note changed in between.
+     */
+    long patch(String id, long cas, Map<String, Object> fields);
+
+    /**
+     * Non-blocking form of {@link #patch(String, long, Map)}, so many patches can be in flight at once.
+     */
+    Mono<Long> patchReactive(String id, long cas, Map<String, Object> fields);
+
+    /**
+     * Soft deletes up to {@code limit} active notes of a list with one server-side UPDATE, stamping them all with
+     * the same timestamp. Returns the number of notes changed; fewer than {@code limit} means the list is done.
+     */
+    long softDeleteByListId(String listId, LocalDateTime deletedAt, int limit);
+}
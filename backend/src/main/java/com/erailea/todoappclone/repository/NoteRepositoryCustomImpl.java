@@ -0,0 +1,73 @@
+package com.erailea.todoappclone.repository;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.query.QueryMetrics;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.erailea.todoappclone.model.Note;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+import org.springframework.data.couchbase.core.convert.CouchbaseConverter;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+    private final CouchbaseTemplate couchbaseTemplate;
+
+    @Override
+    public long patch(String id, long cas, Map<String, Object> fields) {
+        return patchReactive(id, cas, fields).block();
+    }
+
+    @Override
+    public Mono<Long> patchReactive(String id, long cas, Map<String, Object> fields) {
+        CouchbaseConverter converter = couchbaseTemplate.getConverter();
+        List<MutateInSpec> specs = fields.entrySet().stream()
+                .map(field -> MutateInSpec.upsert(field.getKey(), converter.convertForWriteIfNeeded(field.getValue())))
+                .collect(Collectors.toList());
+
+        return couchbaseTemplate.getCouchbaseClientFactory().getDefaultCollection().reactive()
+                .mutateIn(id, specs, MutateInOptions.mutateInOptions().cas(cas))
+                .map(result -> result.cas())
+                .onErrorMap(e -> e instanceof CasMismatchException || e instanceof DocumentNotFoundException,
+                        e -> new OptimisticLockingFailureException("Note " + id + " changed since it was read", e));
+    }
+
+    @Override
+    public long softDeleteByListId(String listId, LocalDateTime deletedAt, int limit) {
+        CouchbaseConverter converter = couchbaseTemplate.getConverter();
+        String statement = "UPDATE `" + couchbaseTemplate.getBucketName() + "`"
+                // updatedAt is when this chunk ran, so clients that synced since the list was deleted still see it
+                + " SET deletedAt = $deletedAt, updatedAt = $updatedAt"
+                // Type is inlined rather than bound so the planner can match the partial note index
+                + " WHERE `" + converter.getTypeKey() + "` = \"" + Note.class.getName() + "\" AND listId = $listId"
+                + " AND (deletedAt IS MISSING OR deletedAt IS NULL)"
+                + " LIMIT $limit";
+        JsonObject parameters = JsonObject.create()
+                .put("deletedAt", converter.convertForWriteIfNeeded(deletedAt))
+                .put("updatedAt", converter.convertForWriteIfNeeded(LocalDateTime.now()))
+                .put("listId", listId)
+                .put("limit", limit);
+
+        // REQUEST_PLUS so notes written just before the delete are not missed by a lagging index
+        QueryResult result = couchbaseTemplate.getCouchbaseClientFactory().getCluster().query(statement,
+                QueryOptions.queryOptions()
+                        .parameters(parameters)
+                        .scanConsistency(QueryScanConsistency.REQUEST_PLUS)
+                        .metrics(true));
+        return result.metaData().metrics()
+                .map(QueryMetrics::mutationCount)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,39 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.pagination.NoteCursor;
+import org.springframework.data.couchbase.repository.Query;
+import org.springframework.data.couchbase.repository.ReactiveCouchbaseRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterparts of the {@link NoteRepository} queries used on read paths that return a Mono.
+ */
+@Repository
+public interface ReactiveNoteRepository extends ReactiveCouchbaseRepository<Note, String> {
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId IN $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "ORDER BY listId, " + NoteRepository.DUE_DATE_KEY + ", createdAt, meta().id")
+    Flux<Note> findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List<String> listIds);
+
+    /**
+     * Keyset page of a list's notes after {@code (dueDate, createdAt, id)}, with undated notes sorted last
+     * under {@link NoteCursor#UNDATED}.
+     */
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND listId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "AND " + NoteRepository.DUE_DATE_KEY + " >= $2 AND [" + NoteRepository.DUE_DATE_KEY + ", createdAt, meta().id] > [$2, $3, $4] " +
+            "ORDER BY " + NoteRepository.DUE_DATE_KEY + ", createdAt, meta().id LIMIT $5")
+    Flux<Note> findPageByListId(String listId, long dueDate, long createdAt, String id, int limit);
+
+    /**
+     * Keyset page of a user's undone notes due in {@code [from, to)} across all lists, after
+     * {@code (dueDate, createdAt, id)}. A range scan of idx_note_user_agenda; notes without a due date never match.
+     */
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND done = false " +
+            "AND (deletedAt IS MISSING OR deletedAt IS NULL) AND dueDate >= $2 AND dueDate < $3 " +
+            "AND [dueDate, createdAt, meta().id] > [$4, $5, $6] " +
+            "ORDER BY dueDate, createdAt, meta().id LIMIT $7")
+    Flux<Note> findAgendaPage(String userId, long from, long to, long dueDate, long createdAt, String id, int limit);
+}
@@ -0,0 +1,25 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.TodoList;
+import org.springframework.data.couchbase.repository.Query;
+import org.springframework.data.couchbase.repository.ReactiveCouchbaseRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterparts of the {@link TodoListRepository} queries used on read paths that return a Mono.
+ */
+@Repository
+public interface ReactiveTodoListRepository extends ReactiveCouchbaseRepository<TodoList, String> {
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) ORDER BY createdAt DESC")
+    Flux<TodoList> findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(String userId);
+
+    /**
+     * Keyset page of a user's lists after {@code (createdAt, id)}, newest first. The range on createdAt alone
+     * bounds the index scan; the array comparison then breaks ties on id.
+     */
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "AND createdAt <= $2 AND [createdAt, meta().id] < [$2, $3] " +
+            "ORDER BY createdAt DESC, meta().id DESC LIMIT $4")
+    Flux<TodoList> findPageByUserId(String userId, long createdAt, String id, int limit);
+}
@@ -0,0 +1,9 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.ReminderPartitions;
+import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderPartitionsRepository extends CouchbaseRepository<ReminderPartitions, String> {
+}
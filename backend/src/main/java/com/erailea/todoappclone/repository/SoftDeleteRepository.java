@@ -0,0 +1,29 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.SoftDeletable;
+import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * By-id lookups for soft-deletable documents. Implemented by {@link KeyValueCouchbaseRepository}, so they are
+ * served by KV gets and the deletedAt filter runs in memory instead of in a N1QL predicate.
+ */
+@NoRepositoryBean
+public interface SoftDeleteRepository<T extends SoftDeletable> extends CouchbaseRepository<T, String> {
+    Optional<T> findActiveById(String id);
+
+    /**
+     * Non-blocking form of {@link #findActiveById(String)} for request paths that return a {@link Mono}.
+     */
+    Mono<T> findActiveByIdReactive(String id);
+
+    /**
+     * Fetches all ids with parallel async KV gets; missing, deleted or foreign-typed documents are left out.
+     */
+    List<T> findAllActiveById(Collection<String> ids);
+}
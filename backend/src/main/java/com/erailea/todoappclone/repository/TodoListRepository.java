@@ -1,18 +1,42 @@
 package com.erailea.todoappclone.repository;
 
 import com.erailea.todoappclone.model.TodoList;
-import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import com.couchbase.client.java.query.QueryScanConsistency;
 import org.springframework.data.couchbase.repository.Query;
+import org.springframework.data.couchbase.repository.ScanConsistency;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TodoListRepository extends CouchbaseRepository<TodoList, String> {
-    @Query("#{#n1ql.selectEntity} WHERE userId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) ORDER BY createdAt DESC")
+public interface TodoListRepository extends SoftDeleteRepository<TodoList>, TodoListRepositoryCustom {
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND (deletedAt IS MISSING OR deletedAt IS NULL) ORDER BY createdAt DESC")
     List<TodoList> findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(String userId);
 
-    @Query("SELECT COUNT(1) FROM #{#n1ql.bucket} " +
-            "WHERE meta().id = $1 AND userId = $2 AND (deletedAt IS NULL OR deletedAt IS MISSING)")
-    Long countByIdAndUserIdAndNotDeleted(String id, String userId);
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND (deletedAt IS MISSING OR deletedAt IS NULL) " +
+            "AND meta().id > $1 ORDER BY meta().id LIMIT $2")
+    List<TodoList> findActiveBatchAfterId(String lastId, int limit);
+
+    /**
+     * Lists of a user stamped at or after {@code since}, soft-deleted ones included. REQUEST_PLUS so a write
+     * acknowledged before the sync is never missed because the index lags behind.
+     */
+    @ScanConsistency(query = QueryScanConsistency.REQUEST_PLUS)
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND userId = $1 AND updatedAt >= $2")
+    List<TodoList> findAllByUserIdChangedSince(String userId, long since);
+
+    /**
+     * Ownership check served by a KV get on the list document instead of a query-service round trip.
+     */
+    default Optional<TodoList> findActiveByIdAndUserId(String id, String userId) {
+        return findActiveById(id)
+                .filter(list -> userId.equals(list.getUserId()));
+    }
+
+    default Mono<TodoList> findActiveByIdAndUserIdReactive(String id, String userId) {
+        return findActiveByIdReactive(id)
+                .filter(list -> userId.equals(list.getUserId()));
+    }
 }
\ No newline at end of file
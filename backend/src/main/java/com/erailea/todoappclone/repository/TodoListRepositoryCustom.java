@@ -0,0 +1,29 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.EmbeddedNote;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Sub-document writes against a list document, so changing one field or one embedded note never rewrites
+ * (or races with) the rest of the list. Methods that touch embedded notes return {@code false} when the list
+ * does not embed its notes or does not hold the given note.
+ */
+public interface TodoListRepositoryCustom {
+    void replaceTitle(String listId, String title, LocalDateTime updatedAt);
+
+    void markDeleted(String listId, LocalDateTime deletedAt);
+
+    boolean insertEmbeddedNote(String listId, String noteId, EmbeddedNote note);
+
+    boolean replaceEmbeddedNote(String listId, String noteId, EmbeddedNote note);
+
+    boolean removeEmbeddedNote(String listId, String noteId);
+
+    void markNotesOverflow(String listId);
+
+    void replaceEmbeddedNotes(String listId, Map<String, EmbeddedNote> notes, boolean overflow);
+
+    void removeEmbeddedNotes(String listId);
+}
@@ -0,0 +1,116 @@
+package com.erailea.todoappclone.repository;
+
+import com.couchbase.client.core.error.subdoc.PathExistsException;
+import com.couchbase.client.core.error.subdoc.PathNotFoundException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.erailea.todoappclone.model.EmbeddedNote;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+import org.springframework.data.couchbase.core.convert.CouchbaseConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TodoListRepositoryCustomImpl implements TodoListRepositoryCustom {
+    private static final String NOTES = "notes";
+    private static final String NOTES_OVERFLOW = "notesOverflow";
+
+    private final CouchbaseTemplate couchbaseTemplate;
+
+    @Override
+    public void replaceTitle(String listId, String title, LocalDateTime updatedAt) {
+        collection().mutateIn(listId, List.of(
+                MutateInSpec.upsert("title", title),
+                MutateInSpec.upsert("updatedAt", couchbaseTemplate.getConverter().convertForWriteIfNeeded(updatedAt))));
+    }
+
+    @Override
+    public void markDeleted(String listId, LocalDateTime deletedAt) {
+        Object timestamp = couchbaseTemplate.getConverter().convertForWriteIfNeeded(deletedAt);
+        collection().mutateIn(listId, List.of(
+                MutateInSpec.upsert("deletedAt", timestamp),
+                MutateInSpec.upsert("updatedAt", timestamp)));
+    }
+
+    @Override
+    public boolean insertEmbeddedNote(String listId, String noteId, EmbeddedNote note) {
+        try {
+            collection().mutateIn(listId, List.of(MutateInSpec.insert(notePath(noteId), encode(note))));
+            return true;
+        } catch (PathNotFoundException | PathExistsException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean replaceEmbeddedNote(String listId, String noteId, EmbeddedNote note) {
+        try {
+            collection().mutateIn(listId, List.of(MutateInSpec.replace(notePath(noteId), encode(note))));
+            return true;
+        } catch (PathNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean removeEmbeddedNote(String listId, String noteId) {
+        try {
+            collection().mutateIn(listId, List.of(MutateInSpec.remove(notePath(noteId))));
+            return true;
+        } catch (PathNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void markNotesOverflow(String listId) {
+        collection().mutateIn(listId, List.of(MutateInSpec.upsert(NOTES_OVERFLOW, true)));
+    }
+
+    @Override
+    public void replaceEmbeddedNotes(String listId, Map<String, EmbeddedNote> notes, boolean overflow) {
+        JsonObject encoded = JsonObject.create();
+        notes.forEach((noteId, note) -> encoded.put(noteId, encode(note)));
+        collection().mutateIn(listId, List.of(
+                MutateInSpec.upsert(NOTES, encoded),
+                MutateInSpec.upsert(NOTES_OVERFLOW, overflow)));
+    }
+
+    @Override
+    public void removeEmbeddedNotes(String listId) {
+        try {
+            collection().mutateIn(listId, List.of(
+                    MutateInSpec.remove(NOTES),
+                    MutateInSpec.remove(NOTES_OVERFLOW)));
+        } catch (PathNotFoundException e) {
+            // Already stored the plain way
+        }
+    }
+
+    private JsonObject encode(EmbeddedNote note) {
+        // Same value conversions as a repository save, so the list reads back through the normal mapping
+        CouchbaseConverter converter = couchbaseTemplate.getConverter();
+        JsonObject json = JsonObject.create()
+                .put("content", note.getContent())
+                .put("done", note.isDone());
+        if (note.getCreatedAt() != null) {
+            json.put("createdAt", converter.convertForWriteIfNeeded(note.getCreatedAt()));
+        }
+        if (note.getDueDate() != null) {
+            json.put("dueDate", converter.convertForWriteIfNeeded(note.getDueDate()));
+        }
+        return json;
+    }
+
+    private static String notePath(String noteId) {
+        return NOTES + ".`" + noteId + "`";
+    }
+
+    private Collection collection() {
+        return couchbaseTemplate.getCouchbaseClientFactory().getDefaultCollection();
+    }
+}
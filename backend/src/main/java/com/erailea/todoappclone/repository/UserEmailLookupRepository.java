@@ -0,0 +1,10 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.UserEmailLookup;
+import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserEmailLookupRepository extends CouchbaseRepository<UserEmailLookup, String>,
+        UserEmailLookupRepositoryCustom {
+}
@@ -0,0 +1,11 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.UserEmailLookup;
+
+public interface UserEmailLookupRepositoryCustom {
+    /**
+     * Inserts the lookup document, failing with {@link org.springframework.dao.DuplicateKeyException}
+     * when the email is already claimed.
+     */
+    UserEmailLookup insert(UserEmailLookup lookup);
+}
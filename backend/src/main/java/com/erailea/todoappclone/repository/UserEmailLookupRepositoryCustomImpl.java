@@ -0,0 +1,15 @@
+package com.erailea.todoappclone.repository;
+
+import com.erailea.todoappclone.model.UserEmailLookup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+
+@RequiredArgsConstructor
+public class UserEmailLookupRepositoryCustomImpl implements UserEmailLookupRepositoryCustom {
+    private final CouchbaseTemplate couchbaseTemplate;
+
+    @Override
+    public UserEmailLookup insert(UserEmailLookup lookup) {
+        return couchbaseTemplate.insertById(UserEmailLookup.class).one(lookup);
+    }
+}
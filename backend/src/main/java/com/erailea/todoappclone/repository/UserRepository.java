@@ -2,8 +2,10 @@ package com.erailea.todoappclone.repository;
 
 import com.erailea.todoappclone.model.User;
 import org.springframework.data.couchbase.repository.CouchbaseRepository;
+import org.springframework.data.couchbase.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,7 @@ public interface UserRepository extends CouchbaseRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("#{#n1ql.selectEntity} WHERE #{#n1ql.filter} AND meta().id > $1 ORDER BY meta().id LIMIT $2")
+    List<User> findBatchAfterId(String lastId, int limit);
 }
\ No newline at end of file
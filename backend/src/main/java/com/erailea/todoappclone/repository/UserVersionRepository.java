@@ -0,0 +1,47 @@
+package com.erailea.todoappclone.repository;
+
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.kv.IncrementOptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * One KV counter per user, bumped after every write to the user's lists or notes. Reading it is a single KV get,
+ * so a client can be told nothing changed without querying any list or note.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserVersionRepository {
+    public static final String KEY_PREFIX = "user::version::";
+
+    private final CouchbaseTemplate couchbaseTemplate;
+
+    /**
+     * The user's current version, or 0 for a user who has not written anything since versions were introduced.
+     */
+    public Mono<Long> current(String userId) {
+        return collection().reactive().get(keyFor(userId))
+                .map(result -> result.contentAs(Long.class))
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.just(0L));
+    }
+
+    /**
+     * Must run after the write it covers, so a read that saw the new version cannot have read the old data.
+     */
+    public long bump(String userId) {
+        return collection().binary()
+                .increment(keyFor(userId), IncrementOptions.incrementOptions().initial(1))
+                .content();
+    }
+
+    public static String keyFor(String userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private Collection collection() {
+        return couchbaseTemplate.getCouchbaseClientFactory().getDefaultCollection();
+    }
+}
@@ -0,0 +1,127 @@
+package com.erailea.todoappclone.search;
+
+import com.erailea.todoappclone.config.SearchConfig;
+import com.erailea.todoappclone.config.SyncConfig;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.CursorPage;
+import com.erailea.todoappclone.pagination.SyncToken;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Per-node full-text index of note content, one {@link UserNoteIndex} per user, loaded on the user's first
+ * search. Writes on this node update the index in place; before each search the user's version counter is
+ * read, and if another node has written since, the changes are caught up through the sync queries. Lists
+ * deleted since are dropped with their notes, which the cascade delete only soft-deletes later.
+ */
+@Slf4j
+@Component
+public class NoteSearchIndex {
+    private final NoteRepository noteRepository;
+    private final TodoListRepository todoListRepository;
+    private final UserVersionRepository userVersionRepository;
+    private final SyncConfig syncConfig;
+    private final Cache<String, UserNoteIndex> indexes;
+
+    public NoteSearchIndex(NoteRepository noteRepository,
+                           TodoListRepository todoListRepository,
+                           UserVersionRepository userVersionRepository,
+                           SyncConfig syncConfig,
+                           SearchConfig searchConfig) {
+        this.noteRepository = noteRepository;
+        this.todoListRepository = todoListRepository;
+        this.userVersionRepository = userVersionRepository;
+        this.syncConfig = syncConfig;
+        // Weighed by note count when (re)put after a load or catch-up, so the bound follows index growth
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(searchConfig.getMaxIndexedNotes())
+                .weigher((String userId, UserNoteIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(searchConfig.getIdleTtl())
+                .build();
+    }
+
+    /**
+     * Active notes of the user matching every word of the query, a trailing partial word included, best first.
+     */
+    public List<Note> search(String userId, String query, int limit) {
+        List<String> terms = UserNoteIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        UserNoteIndex index = indexes.get(userId, key -> new UserNoteIndex());
+        long current = userVersionRepository.current(userId).block();
+        index.lock().lock();
+        try {
+            if (index.version() < current || !index.isLoaded()) {
+                catchUp(userId, index, current);
+                indexes.put(userId, index);
+            }
+            return index.search(terms, CursorPage.size(limit));
+        } finally {
+            index.lock().unlock();
+        }
+    }
+
+    /**
+     * Applies a note write made on this node at user version {@code version}.
+     */
+    public void update(String userId, Note note, long version) {
+        UserNoteIndex index = indexes.getIfPresent(userId);
+        if (index == null) {
+            return;
+        }
+        index.lock().lock();
+        try {
+            index.put(note);
+            index.advance(version);
+        } finally {
+            index.lock().unlock();
+        }
+    }
+
+    /**
+     * Drops the notes of a list deleted on this node at user version {@code version}.
+     */
+    public void removeList(String userId, String listId, long version) {
+        UserNoteIndex index = indexes.getIfPresent(userId);
+        if (index == null) {
+            return;
+        }
+        index.lock().lock();
+        try {
+            index.removeList(listId);
+            index.advance(version);
+        } finally {
+            index.lock().unlock();
+        }
+    }
+
+    private void catchUp(String userId, UserNoteIndex index, long version) {
+        // Taken before the queries run, as for GET /sync, so a write they miss is found by the next catch-up
+        SyncToken next = SyncToken.issuedAt(System.currentTimeMillis(), syncConfig.getSkewWindow().toMillis());
+        if (!index.isLoaded()) {
+            List<String> listIds = todoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId).stream()
+                    .map(TodoList::getId)
+                    .toList();
+            if (!listIds.isEmpty()) {
+                noteRepository.findAllByListIdInAndDeletedAtIsNull(listIds).forEach(index::put);
+            }
+            log.debug("Loaded search index of user {} with {} notes", userId, index.size());
+        } else {
+            noteRepository.findAllByUserIdChangedSince(userId, index.syncedSince()).forEach(index::put);
+            todoListRepository.findAllByUserIdChangedSince(userId, index.syncedSince()).stream()
+                    .filter(list -> list.getDeletedAt() != null)
+                    .forEach(list -> index.removeList(list.getId()));
+        }
+        index.syncedTo(next.since(), version);
+    }
+}
@@ -0,0 +1,214 @@
+package com.erailea.todoappclone.search;
+
+import com.erailea.todoappclone.model.Note;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the content of one user's active notes. Terms are kept sorted, so a query term matches
+ * every indexed term it is a prefix of; a note matches when each query term matches one of its terms. Matches
+ * are ranked by tf-idf, with prefix expansions weighted below exact terms. Not thread-safe; callers hold
+ * {@link #lock()}.
+ */
+class UserNoteIndex {
+    // Query terms shorter than this only match whole terms, so one letter does not expand to half the vocabulary
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final double PREFIX_WEIGHT = 0.5;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Hit> RANK = Comparator.comparingDouble(Hit::score)
+            .thenComparing(hit -> hit.note().getId(), Comparator.reverseOrder());
+
+    // Held across the catch-up queries, so not a monitor: blocking inside synchronized pins a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Note> notes = new HashMap<>();
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    // User version the index reflects, -1 until it has been loaded
+    private long version = -1;
+    // Sync checkpoint of the last catch-up; notes stamped at or after it may be missing
+    private long syncedSince;
+
+    /**
+     * Lower-cased, accent-folded words of a text, in order and without duplicates.
+     */
+    static List<String> tokenize(String text) {
+        return terms(text).distinct().toList();
+    }
+
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    boolean isLoaded() {
+        return version >= 0;
+    }
+
+    long version() {
+        return version;
+    }
+
+    long syncedSince() {
+        return syncedSince;
+    }
+
+    void syncedTo(long since, long version) {
+        this.syncedSince = since;
+        this.version = Math.max(this.version, version);
+    }
+
+    /**
+     * Marks the index current at {@code version} when it already reflects every write before it.
+     */
+    void advance(long version) {
+        if (version == this.version + 1) {
+            this.version = version;
+        }
+    }
+
+    int size() {
+        return notes.size();
+    }
+
+    /**
+     * Indexes the note, or drops it when soft-deleted. A copy older than the one indexed is ignored.
+     */
+    void put(Note note) {
+        if (note.getDeletedAt() != null) {
+            remove(note.getId());
+            return;
+        }
+        Note indexed = notes.get(note.getId());
+        if (indexed != null && indexed.getUpdatedAt() != null && note.getUpdatedAt() != null
+                && note.getUpdatedAt().isBefore(indexed.getUpdatedAt())) {
+            return;
+        }
+        remove(note.getId());
+        notes.put(note.getId(), note);
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms(note.getContent()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(note.getId(), frequency));
+    }
+
+    void remove(String noteId) {
+        Note indexed = notes.remove(noteId);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : tokenize(indexed.getContent())) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(noteId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    void removeList(String listId) {
+        List<String> ids = notes.values().stream()
+                .filter(note -> listId.equals(note.getListId()))
+                .map(Note::getId)
+                .toList();
+        ids.forEach(this::remove);
+    }
+
+    /**
+     * Best {@code limit} notes matching every term, highest score first.
+     */
+    List<Note> search(List<String> terms, int limit) {
+        // Rarest term first, so every later term only scores the notes still in the running
+        List<Expansion> expansions = terms.stream()
+                .map(this::expand)
+                .sorted(Comparator.comparingLong(Expansion::postings))
+                .toList();
+        Map<String, Double> scores = null;
+        for (Expansion expansion : expansions) {
+            scores = match(expansion, scores);
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        // Min-heap of the best hits so far; ranking 100k matches costs O(n log limit), not a full sort
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANK);
+        scores.forEach((id, score) -> {
+            if (best.size() < limit || score >= best.peek().score()) {
+                best.add(new Hit(notes.get(id), score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        });
+        List<Note> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().note());
+        }
+        return ranked.reversed();
+    }
+
+    private Expansion expand(String term) {
+        Map<String, Map<String, Integer>> matching = term.length() < MIN_PREFIX_LENGTH
+                ? (postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of())
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        return new Expansion(term, matching, matching.values().stream().mapToLong(Map::size).sum());
+    }
+
+    /**
+     * Scores of the notes matching the expansion, added to their {@code previous} scores; with previous scores,
+     * only notes among them are kept.
+     */
+    private Map<String, Double> match(Expansion expansion, Map<String, Double> previous) {
+        Map<String, Double> matches = new HashMap<>();
+        expansion.terms().forEach((indexedTerm, posting) -> {
+            double idf = Math.log(1 + (double) notes.size() / posting.size());
+            double weight = indexedTerm.length() == expansion.term().length() ? idf : idf * PREFIX_WEIGHT;
+            posting.forEach((id, frequency) -> {
+                if (previous == null || previous.containsKey(id)) {
+                    // A note matching several expansions of the term scores by its best one
+                    matches.merge(id, weight * (1 + Math.log(frequency)), Math::max);
+                }
+            });
+        });
+        if (previous != null) {
+            matches.replaceAll((id, score) -> score + previous.get(id));
+        }
+        return matches;
+    }
+
+    private static Stream<String> terms(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(term -> !term.isEmpty());
+    }
+
+    private record Hit(Note note, double score) {
+    }
+
+    /**
+     * A query term with the indexed terms it matches and their posting count.
+     */
+    private record Expansion(String term, Map<String, Map<String, Integer>> terms, long postings) {
+    }
+}
@@ -1,6 +1,6 @@
 package com.erailea.todoappclone.security;
 
-import com.erailea.todoappclone.repository.UserRepository;
+import com.erailea.todoappclone.cache.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,11 +10,33 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return userCache.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+
+    public UserDetails loadUserById(String id) throws UsernameNotFoundException {
+        return userCache.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+    }
+
+    /**
+     * Like {@link #loadUserById(String)} but reads past the cache, for paths that must see a changed or
+     * removed user right away.
+     */
+    public UserDetails loadLiveUserById(String id) throws UsernameNotFoundException {
+        return userCache.refreshById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+    }
+
+    /**
+     * Live lookup for tokens issued before they carried the user id.
+     */
+    public UserDetails loadLiveUser(String email) throws UsernameNotFoundException {
+        return userCache.refreshByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 } 
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.erailea.todoappclone.security;
 
+import com.erailea.todoappclone.config.JwtConfig;
+import com.erailea.todoappclone.model.User;
 import com.erailea.todoappclone.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,18 +13,22 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtConfig jwtConfig;
 
     @Override
     protected void doFilterInternal(
@@ -30,30 +37,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userId;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userId = jwtService.extractUsername(jwt);
+        // Signature and expiry are verified once here; the claims are reused for the rest of the request
+        Optional<Claims> claims = jwtService.validateToken(authHeader.substring(7));
+        String userId = claims.map(Claims::getSubject).orElse(null);
 
         if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userId);
-
-            if (jwtService.isTokenValid(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            UserDetails userDetails = resolvePrincipal(claims.get(), request);
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(Claims claims, HttpServletRequest request) {
+        Optional<User> claimed = jwtService.extractUser(claims);
+        if (claimed.isEmpty()) {
+            // Tokens issued before identity claims were embedded only name the email
+            return requiresLiveLookup(request)
+                    ? this.userDetailsService.loadLiveUser(claims.getSubject())
+                    : this.userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        String userId = claimed.get().getId();
+        if (requiresLiveLookup(request)) {
+            return this.userDetailsService.loadLiveUserById(userId);
+        }
+        if (jwtConfig.isStatelessPrincipal()) {
+            return claimed.get();
+        }
+        return this.userDetailsService.loadUserById(userId);
+    }
+
+    private boolean requiresLiveLookup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return jwtConfig.getLiveLookupPaths().stream()
+                .anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
 } 
\ No newline at end of file
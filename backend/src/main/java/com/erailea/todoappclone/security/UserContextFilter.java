@@ -1,6 +1,7 @@
 package com.erailea.todoappclone.security;
 
-import com.erailea.todoappclone.repository.UserRepository;
+import com.erailea.todoappclone.cache.UserCache;
+import com.erailea.todoappclone.model.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,16 +18,19 @@ import java.io.IOException;
 @Component
 @RequiredArgsConstructor
 public class UserContextFilter extends OncePerRequestFilter {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            // Principal was already resolved by JwtAuthenticationFilter, either from claims or a live lookup
+            request.setAttribute("currentUser", user);
+        } else if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
             String email = ((UserDetails) authentication.getPrincipal()).getUsername();
-            userRepository.findByEmail(email)
+            userCache.findByEmail(email)
                     .ifPresent(user -> request.setAttribute("currentUser", user));
         }
 
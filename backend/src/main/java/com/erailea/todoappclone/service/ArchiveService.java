@@ -0,0 +1,20 @@
+package com.erailea.todoappclone.service;
+
+import com.erailea.todoappclone.dto.ArchiveEntry;
+import com.erailea.todoappclone.dto.response.ImportResponse;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+
+public interface ArchiveService {
+    enum IdMode {
+        // Imported documents get new ids, so an archive can be imported next to the account it came from
+        REMAP,
+        // Imported documents keep their ids; entries whose id is already taken are skipped
+        PRESERVE
+    }
+
+    Flux<ArchiveEntry> exportArchive(String userId);
+
+    ImportResponse importArchive(String userId, InputStream archive, IdMode idMode);
+}
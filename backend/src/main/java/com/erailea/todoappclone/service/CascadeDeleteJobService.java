@@ -0,0 +1,10 @@
+package com.erailea.todoappclone.service;
+
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.TodoList;
+
+public interface CascadeDeleteJobService {
+    CascadeDeleteJob enqueue(TodoList deletedList);
+
+    CascadeDeleteJob getJob(String id, String userId);
+}
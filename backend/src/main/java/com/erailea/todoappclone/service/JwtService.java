@@ -1,8 +1,10 @@
 package com.erailea.todoappclone.service;
 
+import com.erailea.todoappclone.model.User;
 import io.jsonwebtoken.Claims;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 public interface JwtService {
@@ -14,5 +16,11 @@ public interface JwtService {
 
     String generateToken(Map<String, Object> extraClaims, String userId);
 
+    String generateToken(User user);
+
     boolean isTokenValid(String token);
+
+    Optional<Claims> validateToken(String token);
+
+    Optional<User> extractUser(Claims claims);
 }
\ No newline at end of file
@@ -1,21 +1,32 @@
 package com.erailea.todoappclone.service;
 
 import com.erailea.todoappclone.dto.request.CreateNoteRequest;
+import com.erailea.todoappclone.dto.request.NoteOperation;
 import com.erailea.todoappclone.dto.request.UpdateNoteRequest;
+import com.erailea.todoappclone.dto.response.NoteBatchResult;
 import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.pagination.CursorPage;
 
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NoteService {
     // List-specific operations
     Note createNote(CreateNoteRequest request, String listId, String userId);
 
-    List<Note> getNotesByListId(String listId, String userId);
+    Mono<CursorPage<Note>> getNotesByListIdReactive(String listId, String userId, String cursor, int limit);
 
     // Note-specific operations
-    Note getNoteById(String id, String userId);
+    Mono<Note> getNoteByIdReactive(String id, String userId);
+
+    Mono<CursorPage<Note>> getAgenda(String userId, LocalDateTime from, LocalDateTime to, String cursor, int limit);
 
     Note updateNote(String id, UpdateNoteRequest request, String userId);
 
     void deleteNote(String id, String userId);
+
+    // Batch operations
+    List<NoteBatchResult> applyBatch(List<NoteOperation> operations, String userId);
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.erailea.todoappclone.service;
+
+import com.erailea.todoappclone.dto.response.SyncResponse;
+
+public interface SyncService {
+    SyncResponse getChanges(String userId, String since);
+}
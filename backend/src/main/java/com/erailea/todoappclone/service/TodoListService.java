@@ -1,16 +1,21 @@
 package com.erailea.todoappclone.service;
 
 import com.erailea.todoappclone.dto.response.TodoListResponse;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
 import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.CursorPage;
 
-import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface TodoListService {
     TodoList createList(String title, String userId);
 
-    List<TodoListResponse> getLists(String userId);
+    Mono<CursorPage<TodoListResponse>> getListsReactive(String userId, String cursor, int limit);
+
+    Flux<TodoListResponse> streamLists(String userId);
 
     TodoList updateListTitle(String id, String title, String userId);
 
-    void deleteList(String id, String userId);
+    CascadeDeleteJob deleteList(String id, String userId);
 } 
\ No newline at end of file
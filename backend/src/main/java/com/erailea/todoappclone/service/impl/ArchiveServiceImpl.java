@@ -0,0 +1,144 @@
+package com.erailea.todoappclone.service.impl;
+
+import com.erailea.todoappclone.config.ArchiveConfig;
+import com.erailea.todoappclone.dto.ArchiveEntry;
+import com.erailea.todoappclone.dto.response.ImportResponse;
+import com.erailea.todoappclone.exception.BusinessException;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
+import com.erailea.todoappclone.repository.ReactiveTodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.service.ArchiveService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveServiceImpl implements ArchiveService {
+    private final ReactiveTodoListRepository reactiveTodoListRepository;
+    private final ReactiveNoteRepository reactiveNoteRepository;
+    private final ReactiveCouchbaseTemplate reactiveCouchbaseTemplate;
+    private final UserVersionRepository userVersionRepository;
+    private final ArchiveConfig archiveConfig;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public Flux<ArchiveEntry> exportArchive(String userId) {
+        // A batch of lists, then all of their notes from one ordered query; nothing beyond one batch is held
+        return reactiveTodoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId)
+                .buffer(archiveConfig.getExportBatchSize())
+                .concatMap(lists -> Flux.fromIterable(lists)
+                        .map(ArchiveEntry::of)
+                        .concatWith(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(
+                                        lists.stream().map(TodoList::getId).toList())
+                                .map(ArchiveEntry::of)));
+    }
+
+    @Override
+    public ImportResponse importArchive(String userId, InputStream archive, IdMode idMode) {
+        MappingIterator<ArchiveEntry> entries;
+        try {
+            entries = objectMapper.readerFor(ArchiveEntry.class).readValues(archive);
+        } catch (IOException e) {
+            throw new BusinessException("INVALID_ARCHIVE", "Archive could not be read");
+        }
+
+        // Old list id to new one; only touched on the reading thread, and lists always precede their notes
+        Map<String, String> listIds = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        AtomicLong lists = new AtomicLong();
+        AtomicLong notes = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+
+        try {
+            Flux.fromIterable(() -> entries)
+                    // Reads the request body off the Couchbase IO threads that complete the writes
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(entry -> {
+                        Mono<?> write = toWrite(entry, userId, idMode, listIds, now, lists, notes);
+                        if (write == null) {
+                            skipped.incrementAndGet();
+                            return Mono.empty();
+                        }
+                        return write.onErrorResume(e -> {
+                            // Typically a note id already taken in PRESERVE mode
+                            skipped.incrementAndGet();
+                            return Mono.empty();
+                        });
+                    }, archiveConfig.getImportConcurrency())
+                    .blockLast();
+        } catch (RuntimeException e) {
+            // Write failures are absorbed per entry above, so anything reaching here came from reading the archive
+            log.warn("Import for user {} stopped at an unreadable entry after {} lists and {} notes", userId, lists.get(), notes.get(), e);
+            throw new BusinessException("INVALID_ARCHIVE", "Archive contains a line that is not a list or note entry; "
+                    + lists.get() + " lists and " + notes.get() + " notes were imported before it");
+        } finally {
+            if (lists.get() + notes.get() > 0) {
+                userVersionRepository.bump(userId);
+            }
+        }
+        return new ImportResponse(lists.get(), notes.get(), skipped.get());
+    }
+
+    /**
+     * Rewrites an entry for the importing user. Returns the pending insert of a note, an empty Mono for a list that
+     * is already inserted, or {@code null} when the entry is skipped.
+     */
+    private Mono<?> toWrite(ArchiveEntry entry, String userId, IdMode idMode, Map<String, String> listIds,
+                            LocalDateTime now, AtomicLong lists, AtomicLong notes) {
+        if (entry.list() != null && entry.note() == null && validator.validate(entry.list()).isEmpty()) {
+            TodoList list = entry.list();
+            String id = idMode == IdMode.REMAP || list.getId() == null ? UUID.randomUUID().toString() : list.getId();
+            TodoList imported = new TodoList(id, list.getTitle(), list.getCreatedAt() == null ? now : list.getCreatedAt(),
+                    userId, null, now, null, false);
+            // Lists are few, so each is inserted before reading on; notes are only mapped onto a list this import
+            // created, never onto someone else's list that already held a preserved id
+            try {
+                insert(TodoList.class, imported).block();
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (list.getId() != null) {
+                listIds.put(list.getId(), id);
+            }
+            lists.incrementAndGet();
+            return Mono.empty();
+        }
+        if (entry.note() != null && entry.list() == null && validator.validate(entry.note()).isEmpty()) {
+            Note note = entry.note();
+            String listId = listIds.get(note.getListId());
+            if (listId == null) {
+                return null;
+            }
+            String id = idMode == IdMode.REMAP || note.getId() == null ? UUID.randomUUID().toString() : note.getId();
+            Note imported = new Note(id, note.getContent(), note.isDone(), note.getCreatedAt() == null ? now : note.getCreatedAt(),
+                    note.getDueDate(), listId, userId, null, now, 0);
+            return insert(Note.class, imported).doOnSuccess(saved -> notes.incrementAndGet());
+        }
+        return null;
+    }
+
+    // Always an insert, never an upsert, so a preserved id can not overwrite a document that already exists
+    private <T> Mono<T> insert(Class<T> type, T document) {
+        return reactiveCouchbaseTemplate.insertById(type).one(document);
+    }
+}
@@ -1,15 +1,16 @@
 package com.erailea.todoappclone.service.impl;
 
+import com.erailea.todoappclone.cache.UserCache;
 import com.erailea.todoappclone.dto.request.AuthenticateRequest;
 import com.erailea.todoappclone.dto.request.RegisterRequest;
 import com.erailea.todoappclone.dto.response.AuthResponse;
 import com.erailea.todoappclone.exception.BusinessException;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
 import com.erailea.todoappclone.model.User;
-import com.erailea.todoappclone.repository.UserRepository;
 import com.erailea.todoappclone.service.AuthService;
 import com.erailea.todoappclone.service.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,11 +22,11 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userCache.existsByEmail(request.getEmail())) {
             throw new BusinessException("EMAIL_EXISTS", "Email already exists");
         }
 
@@ -34,15 +35,21 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setFullName(request.getFullName());
 
-        userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userCache.create(user);
+        } catch (DuplicateKeyException e) {
+            // Lost the race against a concurrent registration for the same email
+            throw new BusinessException("EMAIL_EXISTS", "Email already exists");
+        }
 
-        String token = jwtService.generateToken(user.getEmail());
+        String token = jwtService.generateToken(savedUser);
 
         return new AuthResponse(
                 token,
-                user.getId(),
-                user.getEmail(),
-                user.getFullName()
+                savedUser.getId(),
+                savedUser.getEmail(),
+                savedUser.getFullName()
         );
     }
 
@@ -55,10 +62,10 @@ public class AuthServiceImpl implements AuthService {
                 )
         );
 
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userCache.findByEmail(request.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", request.getEmail()));
 
-        String token = jwtService.generateToken(user.getEmail());
+        String token = jwtService.generateToken(user);
 
         return new AuthResponse(
                 token,
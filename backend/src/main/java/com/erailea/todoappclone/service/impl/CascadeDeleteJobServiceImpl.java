@@ -0,0 +1,46 @@
+package com.erailea.todoappclone.service.impl;
+
+import com.erailea.todoappclone.exception.ResourceNotFoundException;
+import com.erailea.todoappclone.job.CascadeDeleteWorker;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.CascadeDeleteJobRepository;
+import com.erailea.todoappclone.service.CascadeDeleteJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CascadeDeleteJobServiceImpl implements CascadeDeleteJobService {
+    private final CascadeDeleteJobRepository jobRepository;
+    private final CascadeDeleteWorker cascadeDeleteWorker;
+
+    @Override
+    public CascadeDeleteJob enqueue(TodoList deletedList) {
+        // A retried delete reuses the job, and with it the deletedAt, that the first attempt wrote
+        CascadeDeleteJob job = jobRepository.findById(CascadeDeleteJob.keyFor(deletedList.getId()))
+                .orElseGet(() -> insert(deletedList));
+
+        // Start right away when a worker is free; otherwise the poll will find it
+        cascadeDeleteWorker.submit(job);
+        return job;
+    }
+
+    private CascadeDeleteJob insert(TodoList deletedList) {
+        try {
+            return jobRepository.save(CascadeDeleteJob.forList(deletedList));
+        } catch (DuplicateKeyException | OptimisticLockingFailureException e) {
+            // A concurrent delete of the same list wrote it first
+            return jobRepository.findById(CascadeDeleteJob.keyFor(deletedList.getId())).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public CascadeDeleteJob getJob(String id, String userId) {
+        return jobRepository.findById(id)
+                .filter(job -> job.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("CascadeDeleteJob", "id", id));
+    }
+}
@@ -1,108 +1,515 @@
 package com.erailea.todoappclone.service.impl;
 
+import com.erailea.todoappclone.concurrent.FanOutExecutor;
+import com.erailea.todoappclone.config.EmbeddedNotesConfig;
 import com.erailea.todoappclone.dto.request.CreateNoteRequest;
+import com.erailea.todoappclone.dto.request.NoteOperation;
 import com.erailea.todoappclone.dto.request.UpdateNoteRequest;
+import com.erailea.todoappclone.dto.response.NoteBatchResult;
+import com.erailea.todoappclone.events.ChangeEvent;
+import com.erailea.todoappclone.events.ChangeEventHub;
+import com.erailea.todoappclone.exception.BaseException;
+import com.erailea.todoappclone.exception.BusinessException;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
+import com.erailea.todoappclone.model.EmbeddedNote;
 import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.CursorPage;
+import com.erailea.todoappclone.pagination.NoteCursor;
+import com.erailea.todoappclone.reminder.ReminderScheduler;
 import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
 import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.search.NoteSearchIndex;
 import com.erailea.todoappclone.service.NoteService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NoteServiceImpl implements NoteService {
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+
+    /**
+     * Outcome of one batch operation: the action written, or {@code error} when its write failed. {@code list} is
+     * the list a created note went into or a moved note went to.
+     */
+    private record BatchWrite(int index, ChangeEvent.Action action, Note note, String sourceListId, TodoList list,
+                              Throwable error) {
+    }
+
     private final NoteRepository noteRepository;
     private final TodoListRepository todoListRepository;
+    private final EmbeddedNotesConfig embeddedNotesConfig;
+    private final ReactiveNoteRepository reactiveNoteRepository;
+    private final FanOutExecutor fanOutExecutor;
+    private final UserVersionRepository userVersionRepository;
+    private final ChangeEventHub changeEventHub;
+    private final NoteSearchIndex noteSearchIndex;
+    private final ReminderScheduler reminderScheduler;
+    private final Validator validator;
 
     @Override
     public Note createNote(CreateNoteRequest request, String listId, String userId) {
         // Verify list exists and belongs to user
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(listId, userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", listId);
-        }
+        TodoList list = requireOwnedList(listId, userId);
 
-        Note note = new Note(
-                null, // ID will be generated by Couchbase
-                request.getContent(),
-                false,
-                LocalDateTime.now(),
-                request.getDueDate(),
-                listId,
-                null // deletedAt is null for new notes
-        );
-        return noteRepository.save(note);
+        Note savedNote = noteRepository.save(newNote(request, list, LocalDateTime.now()));
+        embed(list, savedNote);
+        publish(userId, ChangeEvent.Action.CREATED, savedNote, userVersionRepository.bump(userId));
+        return savedNote;
     }
 
     @Override
-    public List<Note> getNotesByListId(String listId, String userId) {
-        // Verify list exists and belongs to user
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(listId, userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", listId);
-        }
-
-        return noteRepository.findAllByListIdAndDeletedAtIsNullOrderByDueDate(listId);
+    public Mono<CursorPage<Note>> getNotesByListIdReactive(String listId, String userId, String cursor, int limit) {
+        NoteCursor after = NoteCursor.decode(cursor);
+        int size = CursorPage.size(limit);
+        return requireOwnedListReactive(listId, userId)
+                .flatMap(list -> embeddedNotesConfig.isEmbedded(list)
+                        ? Mono.just(embeddedNotesAfter(list, after, size + 1))
+                        : reactiveNoteRepository.findPageByListId(listId, after.dueDate(), after.createdAt(), after.id(), size + 1)
+                                .collectList())
+                .map(rows -> CursorPage.of(rows, size, note -> NoteCursor.of(note).encode()));
     }
 
     @Override
-    public Note getNoteById(String id, String userId) {
-        Note note = noteRepository.findByIdAndDeletedAtIsNull(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Note", "id", id));
+    public Mono<Note> getNoteByIdReactive(String id, String userId) {
+        return noteRepository.findActiveByIdReactive(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Note", "id", id)))
+                .flatMap(note -> {
+                    if (note.getUserId() == null) {
+                        // Notes written before userId was denormalized still need the list lookup
+                        return requireOwnedListReactive(note.getListId(), userId)
+                                .map(list -> {
+                                    note.setUserId(list.getUserId());
+                                    return note;
+                                });
+                    }
+                    if (!note.getUserId().equals(userId)) {
+                        return Mono.error(new ResourceNotFoundException("Note", "id", id));
+                    }
+                    return Mono.just(note);
+                });
+    }
 
-        // Verify list exists and belongs to user
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(note.getListId(), userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", note.getListId());
+    @Override
+    public Mono<CursorPage<Note>> getAgenda(String userId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        long fromKey = from == null ? Long.MIN_VALUE : NoteCursor.dueDateKey(from);
+        long toKey = NoteCursor.dueDateKey(to);
+        if (fromKey >= toKey) {
+            throw new BusinessException("INVALID_RANGE", "from must be before to");
         }
-
-        return note;
+        NoteCursor after = NoteCursor.decode(cursor);
+        int size = CursorPage.size(limit);
+        return reactiveNoteRepository.findAgendaPage(userId, fromKey, toKey, after.dueDate(), after.createdAt(), after.id(), size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size, note -> NoteCursor.of(note).encode()));
     }
 
     @Override
     public Note updateNote(String id, UpdateNoteRequest request, String userId) {
-        Note note = noteRepository.findByIdAndDeletedAtIsNull(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Note", "id", id));
+        return retryOnConflict(() -> patchNote(id, request, userId));
+    }
 
-        // Verify current list exists and belongs to user
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(note.getListId(), userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", note.getListId());
+    /**
+     * Runs a read-then-patch write again when its CAS is stale. Patches only set fields, so re-reading and
+     * re-applying them is safe; a note that keeps changing underneath fails with CONCURRENT_MODIFICATION.
+     */
+    private static <T> T retryOnConflict(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_PATCH_ATTEMPTS) {
+                    throw new BusinessException("CONCURRENT_MODIFICATION", "Note was modified concurrently, please retry");
+                }
+            }
         }
+    }
+
+    private Note patchNote(String id, UpdateNoteRequest request, String userId) {
+        // A move needs the note and the target list, neither of which depends on the other
+        CompletableFuture<TodoList> requestedList = request.getTargetListId() == null
+                ? CompletableFuture.completedFuture(null)
+                : fanOutExecutor.fork(() -> requireOwnedList(request.getTargetListId(), userId));
+        Note note = findOwnedNote(id, userId);
+        String sourceListId = note.getListId();
+        Map<String, Object> changes = applyChanges(note, request, userId, targetListId -> FanOutExecutor.join(requestedList));
+
+        if (changes.isEmpty()) {
+            return note;
+        }
+        note.setUpdatedAt(LocalDateTime.now());
+        changes.put("updatedAt", note.getUpdatedAt());
+        note.setVersion(noteRepository.patch(id, note.getVersion(), changes));
+
+        syncEmbeddedNote(note, sourceListId, sourceListId.equals(note.getListId()) ? null : FanOutExecutor.join(requestedList));
+        publish(userId, ChangeEvent.Action.UPDATED, note, userVersionRepository.bump(userId));
+        return note;
+    }
+
+    /**
+     * Sets the fields given in the request on the note and returns them as the sub-document changes to write.
+     * A move resolves the target list through {@code ownedList}, which throws when the user does not own it.
+     * Any non-empty change set also carries the note's resolved userId, so notes written before userId was
+     * denormalized pick it up on their first update.
+     */
+    private static Map<String, Object> applyChanges(Note note, UpdateNoteRequest request, String userId,
+                                                    Function<String, TodoList> ownedList) {
+        Map<String, Object> changes = new LinkedHashMap<>();
 
         if (request.getContent() != null) {
             note.setContent(request.getContent());
+            changes.put("content", note.getContent());
         }
         if (request.getDone() != null) {
             note.setDone(request.getDone());
+            changes.put("done", note.isDone());
         }
         if (request.getDueDate() != null) {
             note.setDueDate(request.getDueDate());
+            changes.put("dueDate", note.getDueDate());
         }
-        if (request.getTargetListId() != null) {
+        if (request.getTargetListId() != null && !request.getTargetListId().equals(note.getListId())) {
             // Verify new list exists and belongs to user
-            if (todoListRepository.countByIdAndUserIdAndNotDeleted(request.getTargetListId(), userId) == 0) {
-                throw new ResourceNotFoundException("TodoList", "id", request.getTargetListId());
+            TodoList targetList = ownedList.apply(request.getTargetListId());
+
+            // A note may only move between lists of the same owner
+            if (!userId.equals(targetList.getUserId())) {
+                throw new BusinessException("OWNERSHIP_MISMATCH", "Note and target list belong to different users");
             }
 
-            note.setListId(request.getTargetListId());
+            note.setListId(targetList.getId());
+            changes.put("listId", note.getListId());
         }
-
-        return noteRepository.save(note);
+        if (!changes.isEmpty()) {
+            note.setUserId(userId);
+            changes.put("userId", userId);
+        }
+        return changes;
     }
 
     @Override
     public void deleteNote(String id, String userId) {
-        Note note = noteRepository.findByIdAndDeletedAtIsNull(id)
+        Note note = retryOnConflict(() -> softDeleteNote(id, userId));
+        if (embeddedNotesConfig.isEnabled()) {
+            todoListRepository.removeEmbeddedNote(note.getListId(), id);
+        }
+        publish(userId, ChangeEvent.Action.DELETED, note, userVersionRepository.bump(userId));
+    }
+
+    private Note softDeleteNote(String id, String userId) {
+        Note note = findOwnedNote(id, userId);
+        LocalDateTime now = LocalDateTime.now();
+        note.setDeletedAt(now);
+        note.setUpdatedAt(now);
+        note.setUserId(userId);
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("deletedAt", now);
+        changes.put("updatedAt", now);
+        changes.put("userId", userId);
+        note.setVersion(noteRepository.patch(id, note.getVersion(), changes));
+        return note;
+    }
+
+    @Override
+    public List<NoteBatchResult> applyBatch(List<NoteOperation> operations, String userId) {
+        NoteBatchResult[] results = new NoteBatchResult[operations.size()];
+        Set<String> noteIds = new HashSet<>();
+        Set<String> listIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            try {
+                NoteOperation operation = operations.get(i);
+                validate(operation);
+                if (operation.getOp() == NoteOperation.Type.CREATE) {
+                    listIds.add(operation.getListId());
+                } else if (!noteIds.add(operation.getId())) {
+                    // Two writes to one note would race on the same CAS
+                    throw new BusinessException("DUPLICATE_OPERATION", "Note " + operation.getId() + " appears more than once in the batch");
+                } else if (operation.getOp() == NoteOperation.Type.UPDATE && operation.getChanges().getTargetListId() != null) {
+                    listIds.add(operation.getChanges().getTargetListId());
+                }
+            } catch (BaseException e) {
+                results[i] = failed(i, e);
+            }
+        }
+
+        // Every note is fetched once, then every distinct list once, each round as parallel KV gets
+        Map<String, Note> notes = noteRepository.findAllActiveById(noteIds).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+        notes.values().stream()
+                .filter(note -> note.getUserId() == null)
+                .forEach(note -> listIds.add(note.getListId()));
+        Map<String, TodoList> ownedLists = todoListRepository.findAllActiveById(listIds).stream()
+                .filter(list -> userId.equals(list.getUserId()))
+                .collect(Collectors.toMap(TodoList::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Mono<BatchWrite>> writes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            try {
+                writes.add(write(i, operations.get(i), notes, ownedLists, userId, now));
+            } catch (BaseException e) {
+                results[i] = failed(i, e);
+            }
+        }
+
+        // All writes of the batch are in flight at once; a failed write only fails its own result
+        List<BatchWrite> completed = Flux.merge(writes).collectList().block();
+        List<BatchWrite> applied = new ArrayList<>();
+        for (BatchWrite write : completed) {
+            if (write.error() != null) {
+                results[write.index()] = failed(write.index(), write.error());
+                continue;
+            }
+            if (write.action() != null) {
+                syncEmbeddedNote(write);
+                applied.add(write);
+            }
+            int status = write.action() == ChangeEvent.Action.CREATED ? HttpStatus.CREATED.value() : HttpStatus.OK.value();
+            results[write.index()] = NoteBatchResult.ok(write.index(), status, write.note());
+        }
+
+        if (!applied.isEmpty()) {
+            long version = userVersionRepository.bump(userId);
+            applied.forEach(write -> publish(userId, write.action(), write.note(), version));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Announces a note write made at user version {@code version} to event streams, the search index and the
+     * reminder scheduler.
+     */
+    private void publish(String userId, ChangeEvent.Action action, Note note, long version) {
+        changeEventHub.publish(userId, ChangeEvent.of(action, note, version));
+        noteSearchIndex.update(userId, note, version);
+        reminderScheduler.update(note);
+    }
+
+    private void validate(NoteOperation operation) {
+        if (operation == null) {
+            throw new BusinessException("VALIDATION_ERROR", "Operation is required");
+        }
+        Set<ConstraintViolation<NoteOperation>> violations = validator.validate(operation);
+        if (!violations.isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR", violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        boolean complete = switch (operation.getOp()) {
+            case CREATE -> operation.getListId() != null && operation.getNote() != null;
+            case UPDATE -> operation.getId() != null && operation.getChanges() != null;
+            case DELETE -> operation.getId() != null;
+        };
+        if (!complete) {
+            throw new BusinessException("VALIDATION_ERROR",
+                    "CREATE needs listId and note, UPDATE needs id and changes, DELETE needs id");
+        }
+    }
+
+    /**
+     * Checks one operation against the prefetched notes and lists and returns its write, not yet subscribed.
+     */
+    private Mono<BatchWrite> write(int index, NoteOperation operation, Map<String, Note> notes,
+                                   Map<String, TodoList> ownedLists, String userId, LocalDateTime now) {
+        Function<String, TodoList> ownedList = listId -> {
+            TodoList list = ownedLists.get(listId);
+            if (list == null) {
+                throw new ResourceNotFoundException("TodoList", "id", listId);
+            }
+            return list;
+        };
+
+        Mono<BatchWrite> write;
+        if (operation.getOp() == NoteOperation.Type.CREATE) {
+            TodoList list = ownedList.apply(operation.getListId());
+            write = reactiveNoteRepository.save(newNote(operation.getNote(), list, now))
+                    .map(note -> new BatchWrite(index, ChangeEvent.Action.CREATED, note, null, list, null));
+        } else {
+            Note note = notes.get(operation.getId());
+            if (note == null) {
+                throw new ResourceNotFoundException("Note", "id", operation.getId());
+            }
+            if (note.getUserId() == null) {
+                // Notes written before userId was denormalized still need the list lookup
+                note.setUserId(ownedList.apply(note.getListId()).getUserId());
+            } else if (!note.getUserId().equals(userId)) {
+                throw new ResourceNotFoundException("Note", "id", operation.getId());
+            }
+            write = operation.getOp() == NoteOperation.Type.UPDATE
+                    ? update(index, note, operation.getChanges(), userId, ownedList, now)
+                    : delete(index, note, now);
+        }
+        return write.onErrorResume(e -> Mono.just(new BatchWrite(index, null, null, null, null, e)));
+    }
+
+    private Mono<BatchWrite> update(int index, Note note, UpdateNoteRequest request, String userId,
+                                    Function<String, TodoList> ownedList, LocalDateTime now) {
+        String sourceListId = note.getListId();
+        Map<String, Object> changes = applyChanges(note, request, userId, ownedList);
+        if (changes.isEmpty()) {
+            return Mono.just(new BatchWrite(index, null, note, sourceListId, null, null));
+        }
+        note.setUpdatedAt(now);
+        changes.put("updatedAt", now);
+        TodoList targetList = sourceListId.equals(note.getListId()) ? null : ownedList.apply(note.getListId());
+        return noteRepository.patchReactive(note.getId(), note.getVersion(), changes)
+                .map(cas -> {
+                    note.setVersion(cas);
+                    return new BatchWrite(index, ChangeEvent.Action.UPDATED, note, sourceListId, targetList, null);
+                });
+    }
+
+    private Mono<BatchWrite> delete(int index, Note note, LocalDateTime now) {
+        note.setDeletedAt(now);
+        note.setUpdatedAt(now);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("deletedAt", now);
+        changes.put("updatedAt", now);
+        changes.put("userId", note.getUserId());
+        return noteRepository.patchReactive(note.getId(), note.getVersion(), changes)
+                .map(cas -> {
+                    note.setVersion(cas);
+                    return new BatchWrite(index, ChangeEvent.Action.DELETED, note, note.getListId(), null, null);
+                });
+    }
+
+    private static NoteBatchResult failed(int index, Throwable error) {
+        if (error instanceof ResourceNotFoundException notFound) {
+            return NoteBatchResult.failed(index, HttpStatus.NOT_FOUND.value(), notFound.getErrorCode(), notFound.getMessage());
+        }
+        if (error instanceof BaseException business) {
+            return NoteBatchResult.failed(index, HttpStatus.BAD_REQUEST.value(), business.getErrorCode(), business.getMessage());
+        }
+        if (error instanceof OptimisticLockingFailureException) {
+            return NoteBatchResult.failed(index, HttpStatus.CONFLICT.value(), "CONCURRENT_MODIFICATION",
+                    "Note was modified concurrently, please retry");
+        }
+        return NoteBatchResult.failed(index, HttpStatus.INTERNAL_SERVER_ERROR.value(), "WRITE_FAILED",
+                "The write could not be completed, please retry");
+    }
+
+    /**
+     * Keeps embedded copies in step with a batch write, the same way the single-note endpoints do.
+     */
+    private void syncEmbeddedNote(BatchWrite write) {
+        if (!embeddedNotesConfig.isEnabled()) {
+            return;
+        }
+        if (write.action() == ChangeEvent.Action.CREATED) {
+            embed(write.list(), write.note());
+        } else if (write.action() == ChangeEvent.Action.DELETED) {
+            todoListRepository.removeEmbeddedNote(write.sourceListId(), write.note().getId());
+        } else {
+            syncEmbeddedNote(write.note(), write.sourceListId(), write.list());
+        }
+    }
+
+    private void syncEmbeddedNote(Note note, String sourceListId, TodoList targetList) {
+        if (!embeddedNotesConfig.isEnabled()) {
+            return;
+        }
+        if (targetList != null) {
+            todoListRepository.removeEmbeddedNote(sourceListId, note.getId());
+            embed(targetList, note);
+        } else {
+            todoListRepository.replaceEmbeddedNote(sourceListId, note.getId(), EmbeddedNote.of(note));
+        }
+    }
+
+    private static Note newNote(CreateNoteRequest request, TodoList list, LocalDateTime now) {
+        return new Note(
+                null, // ID will be generated by Couchbase
+                request.getContent(),
+                false,
+                now,
+                request.getDueDate(),
+                list.getId(),
+                list.getUserId(),
+                null, // deletedAt is null for new notes
+                now,
+                0 // no CAS yet, so the save is an insert
+        );
+    }
+
+    /**
+     * Copies a new note into its list document, or flags the list as overflowed once it holds the configured
+     * maximum. Overflowed lists keep their embedded notes current but are read through the note query.
+     */
+    private void embed(TodoList list, Note note) {
+        if (!embeddedNotesConfig.isEmbedded(list)) {
+            return;
+        }
+        // The list copy is kept current too, so a batch adding several notes to one list still honours the cap
+        if (list.getNotes().size() >= embeddedNotesConfig.getMaxSize()) {
+            todoListRepository.markNotesOverflow(list.getId());
+            list.setNotesOverflow(true);
+        } else if (todoListRepository.insertEmbeddedNote(list.getId(), note.getId(), EmbeddedNote.of(note))) {
+            list.getNotes().put(note.getId(), EmbeddedNote.of(note));
+        }
+    }
+
+    private Note findOwnedNote(String id, String userId) {
+        Note note = noteRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Note", "id", id));
 
-        // Verify list exists and belongs to user
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(note.getListId(), userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", note.getListId());
+        if (note.getUserId() == null) {
+            // Notes written before userId was denormalized still need the list lookup
+            TodoList list = requireOwnedList(note.getListId(), userId);
+            note.setUserId(list.getUserId());
+        } else if (!note.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Note", "id", id);
         }
 
-        note.setDeletedAt(LocalDateTime.now());
-        noteRepository.save(note);
+        return note;
+    }
+
+    private TodoList requireOwnedList(String listId, String userId) {
+        return todoListRepository.findActiveByIdAndUserId(listId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("TodoList", "id", listId));
+    }
+
+    private Mono<TodoList> requireOwnedListReactive(String listId, String userId) {
+        return todoListRepository.findActiveByIdAndUserIdReactive(listId, userId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("TodoList", "id", listId)));
+    }
+
+    /**
+     * Pages embedded notes in the same order as the note page query, so a cursor stays valid when the list
+     * overflows and is read through the query instead.
+     */
+    private static List<Note> embeddedNotesAfter(TodoList list, NoteCursor after, int limit) {
+        return EmbeddedNote.toNotes(list).stream()
+                .filter(note -> NoteCursor.of(note).compareTo(after) > 0)
+                .sorted(Comparator.comparing(NoteCursor::of))
+                .limit(limit)
+                .collect(Collectors.toList());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.erailea.todoappclone.service.impl;
+
+import com.erailea.todoappclone.concurrent.FanOutExecutor;
+import com.erailea.todoappclone.config.SyncConfig;
+import com.erailea.todoappclone.dto.response.SyncResponse;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.SyncToken;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class SyncServiceImpl implements SyncService {
+    private final TodoListRepository todoListRepository;
+    private final NoteRepository noteRepository;
+    private final SyncConfig syncConfig;
+    private final FanOutExecutor fanOutExecutor;
+
+    @Override
+    public SyncResponse getChanges(String userId, String since) {
+        // Taken before the queries run, so anything they miss is stamped after it and comes with the next sync
+        SyncToken next = SyncToken.issuedAt(System.currentTimeMillis(), syncConfig.getSkewWindow().toMillis());
+        if (since == null || since.isEmpty()) {
+            // First sync: the client loads its data through GET /lists and syncs from here on
+            return new SyncResponse(Collections.emptyList(), Collections.emptyList(), next.encode());
+        }
+
+        SyncToken checkpoint = SyncToken.decode(since);
+        CompletableFuture<List<TodoList>> lists = fanOutExecutor.fork(() ->
+                todoListRepository.findAllByUserIdChangedSince(userId, checkpoint.since()));
+        List<Note> notes = noteRepository.findAllByUserIdChangedSince(userId, checkpoint.since());
+        return new SyncResponse(FanOutExecutor.join(lists), notes, next.encode());
+    }
+}
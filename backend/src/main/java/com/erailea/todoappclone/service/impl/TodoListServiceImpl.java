@@ -1,109 +1,172 @@
 package com.erailea.todoappclone.service.impl;
 
+import com.erailea.todoappclone.config.EmbeddedNotesConfig;
 import com.erailea.todoappclone.dto.response.TodoListResponse;
+import com.erailea.todoappclone.events.ChangeEvent;
+import com.erailea.todoappclone.events.ChangeEventHub;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
 import com.erailea.todoappclone.mapper.TodoListMapper;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.EmbeddedNote;
 import com.erailea.todoappclone.model.Note;
 import com.erailea.todoappclone.model.TodoList;
-import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.pagination.CursorPage;
+import com.erailea.todoappclone.pagination.ListCursor;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
+import com.erailea.todoappclone.repository.ReactiveTodoListRepository;
 import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.search.NoteSearchIndex;
+import com.erailea.todoappclone.service.CascadeDeleteJobService;
 import com.erailea.todoappclone.service.TodoListService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TodoListServiceImpl implements TodoListService {
+    private static final int STREAM_BATCH_SIZE = 50;
+
     private final TodoListRepository todoListRepository;
-    private final NoteRepository noteRepository;
     private final TodoListMapper todoListMapper;
+    private final EmbeddedNotesConfig embeddedNotesConfig;
+    private final CascadeDeleteJobService cascadeDeleteJobService;
+    private final ReactiveTodoListRepository reactiveTodoListRepository;
+    private final ReactiveNoteRepository reactiveNoteRepository;
+    private final UserVersionRepository userVersionRepository;
+    private final ChangeEventHub changeEventHub;
+    private final NoteSearchIndex noteSearchIndex;
 
     @Override
     public TodoList createList(String title, String userId) {
+        LocalDateTime now = LocalDateTime.now();
         TodoList list = new TodoList(
                 null, // ID will be generated by Couchbase
                 title,
-                LocalDateTime.now(),
+                now,
                 userId,
-                null // deletedAt is null for new lists
+                null, // deletedAt is null for new lists
+                now,
+                embeddedNotesConfig.isEnabled() ? new HashMap<>() : null,
+                false
         );
         list.setDeletedAt(null);
-        return todoListRepository.save(list);
+        TodoList savedList = todoListRepository.save(list);
+        changeEventHub.publish(userId, ChangeEvent.of(ChangeEvent.Action.CREATED, savedList, userVersionRepository.bump(userId)));
+        return savedList;
     }
 
     @Override
-    public List<TodoListResponse> getLists(String userId) {
-        // Fetch all todo lists (1 query)
-        List<TodoList> todoLists = todoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId);
-
-        if (todoLists.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Extract all list IDs
-        List<String> listIds = todoLists.stream()
-                .map(TodoList::getId)
-                .collect(Collectors.toList());
-
-        // Fetch all notes for all lists in a single query (1 query)
-        List<Note> allNotes = noteRepository.findAllByListIdInAndDeletedAtIsNull(listIds);
-
-        // Group notes by listId ordered by dueDate
-        Map<String, List<Note>> notesByListId = allNotes.stream()
-                .collect(Collectors.groupingBy(Note::getListId));
-
-        // Map to response DTOs
-        return todoLists.stream().map(todoList -> {
-            List<Note> notes = notesByListId.getOrDefault(todoList.getId(), Collections.emptyList());
-
-            // Sort notes by dueDate (null values last) and then by createdAt
-            List<Note> sortedNotes = notes.stream()
-                    .sorted(Comparator
-                            .<Note, LocalDateTime>comparing(Note::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
-                            .thenComparing(Note::getCreatedAt))
-                    .collect(Collectors.toList());
+    public Mono<CursorPage<TodoListResponse>> getListsReactive(String userId, String cursor, int limit) {
+        ListCursor after = ListCursor.decode(cursor);
+        int size = CursorPage.size(limit);
+        // Notes are only loaded for the lists on this page
+        return reactiveTodoListRepository.findPageByUserId(userId, after.createdAt(), after.id(), size + 1)
+                .collectList()
+                .map(rows -> CursorPage.of(rows, size, list -> ListCursor.of(list).encode()))
+                .flatMap(page -> withNotes(page.items())
+                        .map(responses -> new CursorPage<>(responses, page.nextCursor())));
+    }
 
-            return todoListMapper.toResponse(todoList, sortedNotes);
-        }).collect(Collectors.toList());
+    @Override
+    public Flux<TodoListResponse> streamLists(String userId) {
+        // Lists are rendered a batch at a time as they arrive, so only one batch and its notes are held at once
+        return reactiveTodoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(userId)
+                .buffer(STREAM_BATCH_SIZE)
+                .concatMap(todoLists -> withNotes(todoLists).flatMapIterable(responses -> responses));
     }
 
     @Override
     public TodoList updateListTitle(String id, String title, String userId) {
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(id, userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", id);
-        }
-
-        TodoList list = todoListRepository.findById(id)
+        TodoList list = todoListRepository.findActiveByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("TodoList", "id", id));
 
+        // Only the title is written, so concurrent note changes embedded in the list are not overwritten
+        LocalDateTime now = LocalDateTime.now();
+        todoListRepository.replaceTitle(id, title, now);
         list.setTitle(title);
-        return todoListRepository.save(list);
+        list.setUpdatedAt(now);
+        changeEventHub.publish(userId, ChangeEvent.of(ChangeEvent.Action.UPDATED, list, userVersionRepository.bump(userId)));
+        return list;
     }
 
     @Override
-    public void deleteList(String id, String userId) {
-        if (todoListRepository.countByIdAndUserIdAndNotDeleted(id, userId) == 0) {
-            throw new ResourceNotFoundException("TodoList", "id", id);
-        }
-
-        TodoList list = todoListRepository.findById(id)
+    public CascadeDeleteJob deleteList(String id, String userId) {
+        TodoList list = todoListRepository.findActiveByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("TodoList", "id", id));
 
+        // The job is written before the list is marked, so a list is never deleted without one. If marking
+        // fails, the worker marks the list when it runs the job; the job's timestamp wins on a retry.
         list.setDeletedAt(LocalDateTime.now());
-        todoListRepository.save(list);
+        CascadeDeleteJob job = cascadeDeleteJobService.enqueue(list);
+        list.setDeletedAt(job.getDeletedAt());
+        list.setUpdatedAt(job.getDeletedAt());
+        todoListRepository.markDeleted(id, job.getDeletedAt());
+        long version = userVersionRepository.bump(userId);
+        changeEventHub.publish(userId, ChangeEvent.of(ChangeEvent.Action.DELETED, list, version));
+        noteSearchIndex.removeList(userId, id, version);
+
+        // The list disappears now; its notes are soft deleted in the background with the same timestamp
+        return job;
+    }
+
+    private Mono<List<TodoListResponse>> withNotes(List<TodoList> todoLists) {
+        List<String> listIds = listIdsToQuery(todoLists);
+        Mono<List<Note>> orderedNotes = listIds.isEmpty()
+                ? Mono.just(Collections.emptyList())
+                : reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(listIds)
+                        .collectList();
+        return orderedNotes.map(notes -> toResponses(todoLists, notes));
+    }
 
-        // Soft delete all notes in the list
-        List<Note> notes = noteRepository.findAllByListIdAndDeletedAtIsNull(id);
-        for (Note note : notes) {
-            note.setDeletedAt(LocalDateTime.now());
+    // Lists that embed their notes render from their own document; only the rest need the note query
+    private List<String> listIdsToQuery(List<TodoList> todoLists) {
+        return todoLists.stream()
+                .filter(todoList -> !embeddedNotesConfig.isEmbedded(todoList))
+                .map(TodoList::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The run of one list in notes ordered by listId, as a subList view, so no note is copied, re-sorted or
+     * grouped into a map. Lists arrive newest first rather than in listId order, so the start of the run is
+     * found by binary search. List ids are generated ASCII UUIDs, whose String order matches the byte order
+     * Couchbase sorts them in.
+     */
+    private static List<Note> runOf(List<Note> orderedNotes, String listId) {
+        int start = 0;
+        int end = orderedNotes.size();
+        while (start < end) {
+            int mid = (start + end) >>> 1;
+            if (orderedNotes.get(mid).getListId().compareTo(listId) < 0) {
+                start = mid + 1;
+            } else {
+                end = mid;
+            }
+        }
+        end = start;
+        while (end < orderedNotes.size() && listId.equals(orderedNotes.get(end).getListId())) {
+            end++;
         }
-        noteRepository.saveAll(notes);
+        return orderedNotes.subList(start, end);
+    }
+
+    private List<TodoListResponse> toResponses(List<TodoList> todoLists, List<Note> orderedNotes) {
+        return todoLists.stream().map(todoList -> {
+            // Query results are already in due-date order; only embedded notes come from an unordered map
+            List<Note> notes = embeddedNotesConfig.isEmbedded(todoList)
+                    ? EmbeddedNote.toNotes(todoList).stream().sorted(Note.DUE_DATE_ORDER).collect(Collectors.toList())
+                    : runOf(orderedNotes, todoList.getId());
+
+            return todoListMapper.toResponse(todoList, notes);
+        }).collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+}
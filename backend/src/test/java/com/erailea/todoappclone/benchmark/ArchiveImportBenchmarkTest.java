@@ -0,0 +1,84 @@
+package com.erailea.todoappclone.benchmark;
+
+import com.erailea.todoappclone.dto.ArchiveEntry;
+import com.erailea.todoappclone.dto.response.ImportResponse;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.service.ArchiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imports one list with 50k notes from an in-memory NDJSON archive and reports the notes written per second,
+ * then exports the account back and checks nothing was lost.
+ * Needs the local Couchbase from docker-compose: RUN_BENCHMARKS=true mvn test -Dtest=ArchiveImportBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class ArchiveImportBenchmarkTest {
+    private static final String USER_ID = "benchmark-user";
+    private static final int NOTE_COUNT = 50_000;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    private List<ArchiveEntry> exported = List.of();
+
+    @AfterEach
+    void removeImported() {
+        noteRepository.deleteAll(exported.stream().map(ArchiveEntry::note).filter(note -> note != null).toList());
+        todoListRepository.deleteAll(exported.stream().map(ArchiveEntry::list).filter(list -> list != null).toList());
+    }
+
+    @Test
+    void measureImportThroughput() throws Exception {
+        byte[] archive = archive();
+
+        long start = System.nanoTime();
+        ImportResponse response = archiveService.importArchive(USER_ID, new ByteArrayInputStream(archive),
+                ArchiveService.IdMode.REMAP);
+        long nanos = System.nanoTime() - start;
+
+        exported = archiveService.exportArchive(USER_ID).collectList().block();
+        assertEquals(new ImportResponse(1, NOTE_COUNT, 0), response);
+        assertEquals(NOTE_COUNT + 1, exported.size());
+        System.out.printf("import %6d notes/s (%d notes in %dms)%n",
+                NOTE_COUNT * 1_000_000_000L / nanos, NOTE_COUNT, nanos / 1_000_000);
+    }
+
+    private byte[] archive() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TodoList list = new TodoList("benchmark-list", "Benchmark list", LocalDateTime.now(), USER_ID,
+                null, null, null, false);
+        out.write(objectMapper.writeValueAsBytes(ArchiveEntry.of(list)));
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            out.write('\n');
+            Note note = new Note("benchmark-note-" + i, "Benchmark note " + i, false, LocalDateTime.now(), null,
+                    list.getId(), USER_ID, null, null, 0);
+            out.write(objectMapper.writeValueAsBytes(ArchiveEntry.of(note)));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.erailea.todoappclone.benchmark;
+
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.query.QueryOptions;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.couchbase.core.CouchbaseTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the by-id note lookup through the query service with the KV path used by {@link NoteRepository}.
+ * Needs the local Couchbase from docker-compose: RUN_BENCHMARKS=true mvn test -Dtest=NoteLookupBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class NoteLookupBenchmarkTest {
+    private static final int NOTE_COUNT = 200;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int BATCH_SIZE = 20;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CouchbaseTemplate couchbaseTemplate;
+
+    private final List<Note> notes = new ArrayList<>();
+
+    @BeforeEach
+    void seedNotes() {
+        String listId = UUID.randomUUID().toString();
+        List<Note> toSave = new ArrayList<>(NOTE_COUNT);
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            toSave.add(new Note(null, "Benchmark note " + i, false, LocalDateTime.now(), null,
+                    listId, "benchmark-user", null, null, 0));
+        }
+        noteRepository.saveAll(toSave).forEach(notes::add);
+    }
+
+    @AfterEach
+    void removeNotes() {
+        noteRepository.deleteAll(notes);
+    }
+
+    @Test
+    void compareQueryAndKeyValueLookups() {
+        List<String> ids = notes.stream().map(Note::getId).toList();
+        Cluster cluster = couchbaseTemplate.getCouchbaseClientFactory().getCluster();
+        String statement = "SELECT META().id AS __id, n.* FROM `" + couchbaseTemplate.getBucketName() + "` n " +
+                "WHERE META().id = $1 AND (n.deletedAt IS MISSING OR n.deletedAt IS NULL)";
+
+        long[] query = measure(ids, id -> cluster.query(statement,
+                QueryOptions.queryOptions().parameters(JsonArray.from(id))).rowsAsObject());
+        long[] keyValue = measure(ids, noteRepository::findActiveById);
+
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())));
+        }
+        long[] batched = measure(batches, noteRepository::findAllActiveById);
+
+        report("N1QL by meta().id", query);
+        report("KV get", keyValue);
+        report("KV multi-get x" + BATCH_SIZE, batched);
+
+        assertTrue(percentile(keyValue, 50) < percentile(query, 50), "KV lookups should beat the query service");
+    }
+
+    private static <T> long[] measure(List<T> inputs, Consumer<T> lookup) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            inputs.forEach(lookup);
+        }
+
+        long[] samples = new long[inputs.size() * MEASURED_ROUNDS];
+        int sample = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (T input : inputs) {
+                long start = System.nanoTime();
+                lookup.accept(input);
+                samples[sample++] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(index, 0)];
+    }
+
+    private static void report(String name, long[] sortedSamples) {
+        System.out.printf("%-22s p50=%6dus p99=%6dus%n", name,
+                percentile(sortedSamples, 50) / 1_000, percentile(sortedSamples, 99) / 1_000);
+    }
+}
@@ -0,0 +1,102 @@
+package com.erailea.todoappclone.benchmark;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.service.NoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Serves the same burst of concurrent list reads once from a fixed pool sized like a servlet container, each request
+ * thread blocking on the service, and once through the reactive path with no thread per request.
+ * Needs the local Couchbase from docker-compose: RUN_BENCHMARKS=true mvn test -Dtest=ReactiveReadBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class ReactiveReadBenchmarkTest {
+    private static final String USER_ID = "benchmark-user";
+    private static final int NOTE_COUNT = 50;
+    private static final int CONCURRENT_REQUESTS = 2_000;
+    private static final int REQUEST_THREADS = 50;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    private TodoList list;
+    private final List<Note> notes = new ArrayList<>();
+
+    @BeforeEach
+    void seedList() {
+        list = todoListRepository.save(new TodoList(null, "Benchmark list", LocalDateTime.now(), USER_ID,
+                null, null, null, false));
+        List<Note> toSave = new ArrayList<>(NOTE_COUNT);
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            toSave.add(new Note(null, "Benchmark note " + i, false, LocalDateTime.now(), null,
+                    list.getId(), USER_ID, null, null, 0));
+        }
+        noteRepository.saveAll(toSave).forEach(notes::add);
+    }
+
+    @AfterEach
+    void removeList() {
+        noteRepository.deleteAll(notes);
+        todoListRepository.delete(list);
+    }
+
+    @Test
+    void compareBlockingAndReactiveThroughput() throws Exception {
+        // Warm up connections and the query plan
+        noteService.getNotesByListIdReactive(list.getId(), USER_ID, null, NOTE_COUNT).block();
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        long blockingStart = System.nanoTime();
+        List<Future<List<Note>>> pending = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            pending.add(requestThreads.submit(() ->
+                    noteService.getNotesByListIdReactive(list.getId(), USER_ID, null, NOTE_COUNT).block().items()));
+        }
+        for (Future<List<Note>> request : pending) {
+            assertEquals(NOTE_COUNT, request.get().size());
+        }
+        long blockingNanos = System.nanoTime() - blockingStart;
+        requestThreads.shutdown();
+
+        long reactiveStart = System.nanoTime();
+        Long served = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> noteService.getNotesByListIdReactive(list.getId(), USER_ID, null, NOTE_COUNT), CONCURRENT_REQUESTS)
+                .count()
+                .block();
+        long reactiveNanos = System.nanoTime() - reactiveStart;
+
+        assertEquals(CONCURRENT_REQUESTS, served);
+        report("blocking x" + REQUEST_THREADS + " threads", blockingNanos);
+        report("reactive", reactiveNanos);
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("%-24s %6d req/s (%d requests in %dms)%n", name,
+                CONCURRENT_REQUESTS * 1_000_000_000L / nanos, CONCURRENT_REQUESTS, nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,121 @@
+package com.erailea.todoappclone.benchmark;
+
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.service.NoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Releases 5k concurrent clients at once against the note read path, served once by a platform pool sized like
+ * Tomcat's default (200 threads) and once by a virtual thread per request, and reports the latency each client
+ * saw including time spent waiting for a thread. The service fans out on virtual threads in both runs.
+ * Needs the local Couchbase from docker-compose: RUN_BENCHMARKS=true mvn test -Dtest=VirtualThreadBenchmarkTest
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class VirtualThreadBenchmarkTest {
+    private static final String USER_ID = "benchmark-user";
+    private static final int NOTE_COUNT = 20;
+    private static final int CLIENTS = 5_000;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TodoListRepository todoListRepository;
+
+    private TodoList list;
+    private final List<Note> notes = new ArrayList<>();
+
+    @BeforeEach
+    void seedList() {
+        list = todoListRepository.save(new TodoList(null, "Benchmark list", LocalDateTime.now(), USER_ID,
+                null, null, null, false));
+        List<Note> toSave = new ArrayList<>(NOTE_COUNT);
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            toSave.add(new Note(null, "Benchmark note " + i, false, LocalDateTime.now(), null,
+                    list.getId(), USER_ID, null, null, 0));
+        }
+        noteRepository.saveAll(toSave).forEach(notes::add);
+    }
+
+    @AfterEach
+    void removeList() {
+        noteRepository.deleteAll(notes);
+        todoListRepository.delete(list);
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreadLatency() throws Exception {
+        // Warm up connections and the query plan
+        for (int i = 0; i < 100; i++) {
+            noteService.getNotesByListIdReactive(list.getId(), USER_ID, null, NOTE_COUNT).block();
+        }
+
+        long[] platform;
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platform = measure(executor);
+        }
+        long[] virtual;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtual = measure(executor);
+        }
+
+        report("platform x" + PLATFORM_THREADS, platform);
+        report("virtual", virtual);
+    }
+
+    private long[] measure(ExecutorService executor) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(executor.submit(() -> {
+                start.await();
+                assertEquals(NOTE_COUNT, noteService.getNotesByListIdReactive(list.getId(), USER_ID, null, NOTE_COUNT).block().items().size());
+                return System.nanoTime();
+            }));
+        }
+
+        long released = System.nanoTime();
+        start.countDown();
+        long[] samples = new long[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            // A client's latency starts when it was released, not when a thread got round to it
+            samples[i] = clients.get(i).get() - released;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(index, 0)];
+    }
+
+    private static void report(String name, long[] sortedSamples) {
+        System.out.printf("%-16s p50=%6dms p99=%6dms%n", name,
+                percentile(sortedSamples, 50) / 1_000_000, percentile(sortedSamples, 99) / 1_000_000);
+    }
+}
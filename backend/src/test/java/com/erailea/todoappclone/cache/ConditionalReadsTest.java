@@ -0,0 +1,91 @@
+package com.erailea.todoappclone.cache;
+
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalReadsTest {
+    private static final String CURRENT_TAG = "\"" + TestFixtures.TEST_USER_ID + ".7\"";
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    @InjectMocks
+    private ConditionalReads conditionalReads;
+
+    @Nested
+    @DisplayName("ifNoneMatch()")
+    class IfNoneMatchTests {
+        @Test
+        @DisplayName("Should answer 304 without running the read when the tag is current")
+        void shouldSkipReadWhenTagIsCurrent() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(7L));
+            AtomicBoolean read = new AtomicBoolean();
+
+            ResponseEntity<String> response = conditionalReads.<String>ifNoneMatch(TestFixtures.TEST_USER_ID, CURRENT_TAG, () -> {
+                read.set(true);
+                return Mono.just(ResponseEntity.ok("body"));
+            }).block();
+
+            assertFalse(read.get());
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+            assertEquals(CURRENT_TAG, response.getHeaders().getETag());
+            assertNull(response.getBody());
+        }
+
+        @Test
+        @DisplayName("Should run the read and tag it when the client's version is stale")
+        void shouldReadWhenTagIsStale() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(7L));
+
+            ResponseEntity<String> response = conditionalReads.ifNoneMatch(TestFixtures.TEST_USER_ID,
+                    "\"" + TestFixtures.TEST_USER_ID + ".6\"",
+                    () -> Mono.just(ResponseEntity.ok().header("X-Next-Cursor", "next").body("body"))).block();
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("body", response.getBody());
+            assertEquals(CURRENT_TAG, response.getHeaders().getETag());
+            assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        }
+
+        @Test
+        @DisplayName("Should tag the first read of a user who never wrote with version 0")
+        void shouldTagUnversionedUser() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(0L));
+
+            ResponseEntity<String> response = conditionalReads.ifNoneMatch(TestFixtures.TEST_USER_ID, null,
+                    () -> Mono.just(ResponseEntity.ok("body"))).block();
+
+            assertEquals("\"" + TestFixtures.TEST_USER_ID + ".0\"", response.getHeaders().getETag());
+        }
+    }
+
+    @Nested
+    @DisplayName("matches()")
+    class MatchesTests {
+        @Test
+        @DisplayName("Should match any tag in the list, weak or strong, and the wildcard")
+        void shouldMatchTagLists() {
+            assertTrue(ConditionalReads.matches("\"other\", " + CURRENT_TAG, CURRENT_TAG));
+            assertTrue(ConditionalReads.matches("W/" + CURRENT_TAG, CURRENT_TAG));
+            assertTrue(ConditionalReads.matches("*", CURRENT_TAG));
+            assertFalse(ConditionalReads.matches("\"other\"", CURRENT_TAG));
+            assertFalse(ConditionalReads.matches("", CURRENT_TAG));
+        }
+    }
+}
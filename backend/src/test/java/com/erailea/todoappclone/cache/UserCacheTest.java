@@ -0,0 +1,257 @@
+package com.erailea.todoappclone.cache;
+
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.User;
+import com.erailea.todoappclone.model.UserEmailLookup;
+import com.erailea.todoappclone.repository.UserEmailLookupRepository;
+import com.erailea.todoappclone.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserEmailLookupRepository userEmailLookupRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, userEmailLookupRepository, 100, Duration.ofMinutes(5), true, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("findByEmail()")
+    class FindByEmailTests {
+        @Test
+        @DisplayName("Should resolve email through lookup document with KV gets")
+        void shouldResolveEmailThroughLookup() {
+            User user = TestFixtures.createTestUser();
+            when(userEmailLookupRepository.findById(UserEmailLookup.keyFor(TestFixtures.TEST_USER_EMAIL)))
+                    .thenReturn(Optional.of(UserEmailLookup.of(TestFixtures.TEST_USER_EMAIL, TestFixtures.TEST_USER_ID)));
+            when(userRepository.findById(TestFixtures.TEST_USER_ID)).thenReturn(Optional.of(user));
+
+            Optional<User> result = userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            assertTrue(result.isPresent());
+            assertEquals(TestFixtures.TEST_USER_ID, result.get().getId());
+            verify(userRepository, never()).findByEmail(any());
+        }
+
+        @Test
+        @DisplayName("Should query repository once and serve repeated lookups from cache")
+        void shouldServeRepeatedLookupsFromCache() {
+            User user = TestFixtures.createTestUser();
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.of(user));
+
+            Optional<User> first = userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+            Optional<User> second = userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            assertTrue(first.isPresent());
+            assertSame(first.get(), second.get());
+            verify(userRepository, times(1)).findByEmail(TestFixtures.TEST_USER_EMAIL);
+            assertEquals(1, userCache.stats().hitCount());
+            assertEquals(1, userCache.stats().missCount());
+            assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usersByEmail").tag("result", "hit")
+                    .functionCounter().count());
+        }
+
+        @Test
+        @DisplayName("Should not cache missing users")
+        void shouldNotCacheMissingUsers() {
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.empty());
+
+            userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+            userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            verify(userRepository, times(2)).findByEmail(TestFixtures.TEST_USER_EMAIL);
+        }
+
+        @Test
+        @DisplayName("Should stop querying by email once the backfill marker exists")
+        void shouldSkipLegacyQueryAfterBackfill() {
+            when(userEmailLookupRepository.existsById(UserEmailLookup.BACKFILL_COMPLETE_KEY)).thenReturn(true);
+
+            userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+            userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            verify(userRepository, never()).findByEmail(any());
+            verify(userEmailLookupRepository, times(1)).existsById(UserEmailLookup.BACKFILL_COMPLETE_KEY);
+        }
+    }
+
+    @Nested
+    @DisplayName("findById()")
+    class FindByIdTests {
+        @Test
+        @DisplayName("Should serve a user loaded by email from the id index")
+        void shouldIndexEmailLookupsById() {
+            User user = TestFixtures.createTestUser();
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.of(user));
+
+            userCache.findByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            assertSame(user, userCache.findById(TestFixtures.TEST_USER_ID).get());
+            verify(userRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should serve a user loaded by id from the email index")
+        void shouldIndexIdLookupsByEmail() {
+            User user = TestFixtures.createTestUser();
+            when(userRepository.findById(TestFixtures.TEST_USER_ID)).thenReturn(Optional.of(user));
+
+            userCache.findById(TestFixtures.TEST_USER_ID);
+
+            assertSame(user, userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).get());
+            verify(userRepository, times(1)).findById(TestFixtures.TEST_USER_ID);
+            verify(userRepository, never()).findByEmail(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("save()")
+    class SaveTests {
+        @Test
+        @DisplayName("Should populate cache on save")
+        void shouldPopulateCacheOnSave() {
+            User user = TestFixtures.createTestUser();
+            when(userRepository.save(user)).thenReturn(user);
+
+            userCache.save(user);
+
+            assertTrue(userCache.existsByEmail(TestFixtures.TEST_USER_EMAIL));
+            assertTrue(userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).isPresent());
+            verify(userRepository, never()).existsByEmail(any());
+            verify(userRepository, never()).findByEmail(any());
+        }
+
+        @Test
+        @DisplayName("Should drop the old email entry when the email changes")
+        void shouldDropOldEmailOnChange() {
+            User user = TestFixtures.createTestUser();
+            User renamed = TestFixtures.createTestUser();
+            renamed.setEmail("renamed@example.com");
+            when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.empty());
+
+            userCache.save(user);
+            userCache.save(renamed);
+
+            assertTrue(userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).isEmpty());
+            assertSame(renamed, userCache.findById(TestFixtures.TEST_USER_ID).get());
+            assertSame(renamed, userCache.findByEmail("renamed@example.com").get());
+        }
+
+        @Test
+        @DisplayName("Should fail without saving when email is already claimed")
+        void shouldFailWhenEmailAlreadyClaimed() {
+            User user = TestFixtures.createTestUser();
+            when(userEmailLookupRepository.insert(any(UserEmailLookup.class)))
+                    .thenThrow(new DuplicateKeyException("exists"));
+
+            assertThrows(DuplicateKeyException.class, () -> userCache.create(user));
+            verify(userRepository, never()).save(any(User.class));
+        }
+
+        @Test
+        @DisplayName("Should release email lookup when saving the user fails")
+        void shouldReleaseLookupWhenSaveFails() {
+            User user = TestFixtures.createTestUser();
+            UserEmailLookup lookup = UserEmailLookup.of(TestFixtures.TEST_USER_EMAIL, TestFixtures.TEST_USER_ID);
+            when(userEmailLookupRepository.insert(any(UserEmailLookup.class))).thenReturn(lookup);
+            when(userRepository.save(user)).thenThrow(new QueryTimeoutException("timeout"));
+
+            assertThrows(QueryTimeoutException.class, () -> userCache.create(user));
+            verify(userEmailLookupRepository).deleteById(lookup.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("refreshByEmail()")
+    class RefreshByEmailTests {
+        @Test
+        @DisplayName("Should read past a cached user and replace it")
+        void shouldReplaceCachedUser() {
+            User cached = TestFixtures.createTestUser();
+            User stored = TestFixtures.createTestUser();
+            stored.setFullName("Renamed");
+            when(userRepository.save(cached)).thenReturn(cached);
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.of(stored));
+
+            userCache.save(cached);
+            Optional<User> refreshed = userCache.refreshByEmail(TestFixtures.TEST_USER_EMAIL);
+
+            assertSame(stored, refreshed.get());
+            assertSame(stored, userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).get());
+        }
+
+        @Test
+        @DisplayName("Should drop a cached user that no longer exists")
+        void shouldDropRemovedUser() {
+            User cached = TestFixtures.createTestUser();
+            when(userRepository.save(cached)).thenReturn(cached);
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.empty());
+
+            userCache.save(cached);
+
+            assertTrue(userCache.refreshByEmail(TestFixtures.TEST_USER_EMAIL).isEmpty());
+            assertTrue(userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("refreshById()")
+    class RefreshByIdTests {
+        @Test
+        @DisplayName("Should replace both cached entries")
+        void shouldReplaceBothEntries() {
+            User cached = TestFixtures.createTestUser();
+            User stored = TestFixtures.createTestUser();
+            stored.setFullName("Renamed");
+            when(userRepository.save(cached)).thenReturn(cached);
+            when(userRepository.findById(TestFixtures.TEST_USER_ID)).thenReturn(Optional.of(stored));
+
+            userCache.save(cached);
+            Optional<User> refreshed = userCache.refreshById(TestFixtures.TEST_USER_ID);
+
+            assertSame(stored, refreshed.get());
+            assertSame(stored, userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).get());
+        }
+
+        @Test
+        @DisplayName("Should drop both entries for a user that no longer exists")
+        void shouldDropBothEntries() {
+            User cached = TestFixtures.createTestUser();
+            when(userRepository.save(cached)).thenReturn(cached);
+            when(userRepository.findById(TestFixtures.TEST_USER_ID)).thenReturn(Optional.empty());
+            when(userRepository.findByEmail(TestFixtures.TEST_USER_EMAIL)).thenReturn(Optional.empty());
+
+            userCache.save(cached);
+
+            assertTrue(userCache.refreshById(TestFixtures.TEST_USER_ID).isEmpty());
+            assertTrue(userCache.findByEmail(TestFixtures.TEST_USER_EMAIL).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.erailea.todoappclone.concurrent;
+
+import com.erailea.todoappclone.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+    private FanOutExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Nested
+    @DisplayName("fork()")
+    class ForkTests {
+        @Test
+        @DisplayName("Should run forked calls on virtual threads when enabled")
+        void shouldRunOnVirtualThread() {
+            executor = new FanOutExecutor(true);
+
+            Thread thread = FanOutExecutor.join(executor.fork(Thread::currentThread));
+
+            assertTrue(thread.isVirtual());
+            assertNotSame(Thread.currentThread(), thread);
+        }
+
+        @Test
+        @DisplayName("Should run forked calls inline on platform threads")
+        void shouldRunInlineWhenDisabled() {
+            executor = new FanOutExecutor(false);
+
+            CompletableFuture<Thread> future = executor.fork(Thread::currentThread);
+
+            assertTrue(future.isDone());
+            assertSame(Thread.currentThread(), FanOutExecutor.join(future));
+        }
+    }
+
+    @Nested
+    @DisplayName("join()")
+    class JoinTests {
+        @Test
+        @DisplayName("Should rethrow the forked call's exception unwrapped in both modes")
+        void shouldRethrowOriginalException() {
+            for (boolean virtualThreads : new boolean[]{true, false}) {
+                executor = new FanOutExecutor(virtualThreads);
+                CompletableFuture<Object> future = executor.fork(() -> {
+                    throw new ResourceNotFoundException("Note", "id", "missing");
+                });
+
+                assertThrows(ResourceNotFoundException.class, () -> FanOutExecutor.join(future));
+                executor.shutdown();
+            }
+        }
+    }
+}
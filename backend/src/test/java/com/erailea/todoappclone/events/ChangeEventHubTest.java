@@ -0,0 +1,162 @@
+package com.erailea.todoappclone.events;
+
+import com.erailea.todoappclone.config.EventsConfig;
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventHubTest {
+    private static final String OTHER_USER_ID = "other-user-id";
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    private EventsConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private ChangeEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        config = new EventsConfig();
+        config.setBufferSize(4);
+        config.setHeartbeat(Duration.ofHours(1));
+        config.setVersionCheck(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new ChangeEventHub(userVersionRepository, config, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("publish()")
+    class PublishTests {
+        @Test
+        @DisplayName("Should deliver events only to the streams of their user and forget closed streams")
+        void shouldDeliverToOwnStreams() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(0L));
+            List<ServerSentEvent<ChangeEvent>> received = new CopyOnWriteArrayList<>();
+            Disposable stream = hub.subscribe(TestFixtures.TEST_USER_ID, null).subscribe(received::add);
+
+            hub.publish(TestFixtures.TEST_USER_ID, ChangeEvent.of(ChangeEvent.Action.CREATED, TestFixtures.createTestNote(), 1));
+            hub.publish(OTHER_USER_ID, ChangeEvent.of(ChangeEvent.Action.CREATED, TestFixtures.createTestNote(), 1));
+
+            assertEquals(1, received.size());
+            assertEquals(ChangeEventHub.CHANGE, received.get(0).event());
+            assertEquals(TestFixtures.TEST_NOTE_ID, received.get(0).data().id());
+            assertEquals("1", received.get(0).id());
+            assertEquals(1, hub.connectionCount());
+
+            stream.dispose();
+
+            assertEquals(0, hub.connectionCount());
+        }
+
+        @Test
+        @DisplayName("Should send a resync and close a stream whose buffer overflows")
+        void shouldResyncSlowConsumer() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(0L));
+            SlowSubscriber client = new SlowSubscriber();
+            hub.subscribe(TestFixtures.TEST_USER_ID, null).subscribe(client);
+
+            // One event is already handed on towards the client, the buffer fills up behind it
+            for (int version = 1; version <= config.getBufferSize() + 2; version++) {
+                hub.publish(TestFixtures.TEST_USER_ID, ChangeEvent.of(ChangeEvent.Action.UPDATED, TestFixtures.createTestNote(), version));
+            }
+            client.requestUnbounded();
+
+            ServerSentEvent<ChangeEvent> last = client.received.get(client.received.size() - 1);
+            assertEquals(ChangeEventHub.RESYNC, last.event());
+            assertTrue(client.completed);
+            assertEquals(0, hub.connectionCount());
+            assertEquals(1.0, meterRegistry.counter("events.resyncs").count());
+        }
+    }
+
+    @Nested
+    @DisplayName("subscribe()")
+    class SubscribeTests {
+        @Test
+        @DisplayName("Should send a resync when the version moved without an event reaching this node")
+        void shouldResyncOnMissedRemoteChange() {
+            config.setVersionCheck(Duration.ofMillis(10));
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID))
+                    .thenReturn(Mono.just(0L))
+                    .thenReturn(Mono.just(3L));
+
+            ServerSentEvent<ChangeEvent> resync = hub.subscribe(TestFixtures.TEST_USER_ID, null)
+                    .filter(event -> ChangeEventHub.RESYNC.equals(event.event()))
+                    .blockFirst(Duration.ofSeconds(5));
+
+            assertNotNull(resync);
+            assertEquals("3", resync.id());
+        }
+
+        @Test
+        @DisplayName("Should start with a resync when the client reconnects from an older version")
+        void shouldResyncOnReconnectAfterMissedChanges() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(5L));
+
+            ServerSentEvent<ChangeEvent> first = hub.subscribe(TestFixtures.TEST_USER_ID, "3").blockFirst(Duration.ofSeconds(5));
+            List<ServerSentEvent<ChangeEvent>> upToDate = new CopyOnWriteArrayList<>();
+            Disposable stream = hub.subscribe(TestFixtures.TEST_USER_ID, "5").subscribe(upToDate::add);
+
+            assertEquals(ChangeEventHub.RESYNC, first.event());
+            assertEquals("5", first.id());
+            assertEquals(List.of(), upToDate);
+            stream.dispose();
+        }
+
+        @Test
+        @DisplayName("Should share one version poll between the streams of a user and stop it with the last one")
+        void shouldShareVersionPollPerUser() {
+            when(userVersionRepository.current(TestFixtures.TEST_USER_ID)).thenReturn(Mono.just(0L));
+
+            Disposable first = hub.subscribe(TestFixtures.TEST_USER_ID, null).subscribe();
+            Disposable second = hub.subscribe(TestFixtures.TEST_USER_ID, null).subscribe();
+
+            assertEquals(1, hub.versionPollCount());
+            first.dispose();
+            assertEquals(1, hub.versionPollCount());
+            second.dispose();
+            assertEquals(0, hub.versionPollCount());
+        }
+    }
+
+    private static class SlowSubscriber extends BaseSubscriber<ServerSentEvent<ChangeEvent>> {
+        private final List<ServerSentEvent<ChangeEvent>> received = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // Reads nothing until told to, like a client that stopped reading its socket
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<ChangeEvent> value) {
+            received.add(value);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class TestFixtures {
         note.setCreatedAt(TEST_CREATED_AT);
         note.setDueDate(TEST_DUE_DATE);
         note.setListId(TEST_LIST_ID);
+        note.setUserId(TEST_USER_ID);
         note.setDeletedAt(null);
         return note;
     }
@@ -0,0 +1,146 @@
+package com.erailea.todoappclone.job;
+
+import com.erailea.todoappclone.config.CascadeDeleteConfig;
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.CascadeDeleteJobRepository;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CascadeDeleteWorkerTest {
+    private static final String JOB_ID = "test-job-id";
+
+    @Mock
+    private CascadeDeleteJobRepository jobRepository;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private TodoListRepository todoListRepository;
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CascadeDeleteWorker worker;
+    private CascadeDeleteJob job;
+
+    @BeforeEach
+    void setUp() {
+        CascadeDeleteConfig config = new CascadeDeleteConfig();
+        config.setChunkSize(2);
+        config.setMaxAttempts(2);
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new CascadeDeleteWorker(jobRepository, noteRepository, todoListRepository, userVersionRepository, config, meterRegistry);
+
+        TodoList list = TestFixtures.createTestTodoList();
+        list.setDeletedAt(LocalDateTime.now());
+        job = CascadeDeleteJob.forList(list);
+        job.setId(JOB_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Nested
+    @DisplayName("process()")
+    class ProcessTests {
+        @Test
+        @DisplayName("Should delete notes in chunks, checkpointing each one, until a short chunk")
+        void shouldDrainListInChunks() {
+            when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+            when(jobRepository.save(any(CascadeDeleteJob.class))).then(returnsFirstArg());
+            when(noteRepository.softDeleteByListId(TestFixtures.TEST_LIST_ID, job.getDeletedAt(), 2))
+                    .thenReturn(2L, 2L, 1L);
+
+            worker.process(JOB_ID);
+
+            assertEquals(CascadeDeleteJob.Status.COMPLETED, job.getStatus());
+            assertEquals(5, job.getNotesDeleted());
+            assertNull(job.getLeaseOwner());
+            assertNotNull(job.getCompletedAt());
+            // Claim, one checkpoint per chunk, and the final release
+            verify(jobRepository, times(5)).save(job);
+            assertEquals(5.0, meterRegistry.counter("cascade.delete.notes").count());
+            verify(userVersionRepository, times(3)).bump(TestFixtures.TEST_USER_ID);
+            verify(todoListRepository, never()).markDeleted(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should mark the list deleted before its notes when the request that wrote the job did not")
+        void shouldMarkListLeftActive() {
+            when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+            when(jobRepository.save(any(CascadeDeleteJob.class))).then(returnsFirstArg());
+            when(todoListRepository.findActiveById(TestFixtures.TEST_LIST_ID))
+                    .thenReturn(Optional.of(TestFixtures.createTestTodoList()));
+            when(noteRepository.softDeleteByListId(TestFixtures.TEST_LIST_ID, job.getDeletedAt(), 2)).thenReturn(0L);
+
+            worker.process(JOB_ID);
+
+            InOrder inOrder = inOrder(todoListRepository, noteRepository);
+            inOrder.verify(todoListRepository).markDeleted(TestFixtures.TEST_LIST_ID, job.getDeletedAt());
+            inOrder.verify(noteRepository).softDeleteByListId(TestFixtures.TEST_LIST_ID, job.getDeletedAt(), 2);
+            assertEquals(CascadeDeleteJob.Status.COMPLETED, job.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should leave a job alone while another worker holds its lease")
+        void shouldSkipJobLeasedByAnotherWorker() {
+            job.setLeaseOwner("other-worker");
+            job.setLeaseExpiresAt(System.currentTimeMillis() + 60_000);
+            when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+            worker.process(JOB_ID);
+
+            verify(noteRepository, never()).softDeleteByListId(any(), any(), anyInt());
+            verify(jobRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should requeue a failed job with backoff and give up after max attempts")
+        void shouldRequeueThenFailAfterMaxAttempts() {
+            when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+            when(jobRepository.save(any(CascadeDeleteJob.class))).then(returnsFirstArg());
+            when(noteRepository.softDeleteByListId(any(), any(), anyInt()))
+                    .thenThrow(new QueryTimeoutException("timeout"));
+
+            worker.process(JOB_ID);
+
+            assertEquals(CascadeDeleteJob.Status.PENDING, job.getStatus());
+            assertEquals("timeout", job.getLastError());
+            assertTrue(job.getLeaseExpiresAt() > System.currentTimeMillis());
+
+            job.setLeaseExpiresAt(0);
+            worker.process(JOB_ID);
+
+            assertEquals(CascadeDeleteJob.Status.FAILED, job.getStatus());
+            assertEquals(2, job.getAttempts());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.model.ReminderPartitions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionLeasesTest {
+    private static final long NOW = 1_000_000L;
+    private static final long LEASE = 60_000L;
+
+    @Nested
+    @DisplayName("rebalance()")
+    class RebalanceTests {
+        @Test
+        @DisplayName("Should give the first node every partition")
+        void shouldClaimAllWhenAlone() {
+            ReminderPartitions partitions = new ReminderPartitions();
+
+            Set<Integer> mine = PartitionLeases.rebalance(partitions, "a", NOW, NOW + LEASE, 4);
+
+            assertEquals(Set.of(0, 1, 2, 3), mine);
+            assertEquals(Collections.nCopies(4, "a"), partitions.getOwners());
+        }
+
+        @Test
+        @DisplayName("Should hand half the partitions to a node that joins")
+        void shouldShareWithNewNode() {
+            ReminderPartitions partitions = new ReminderPartitions();
+            PartitionLeases.rebalance(partitions, "a", NOW, NOW + LEASE, 4);
+
+            // b joins but everything is taken; a gives back its surplus, which b claims on its next poll
+            assertEquals(Set.of(), PartitionLeases.rebalance(partitions, "b", NOW, NOW + LEASE, 4));
+            assertEquals(Set.of(0, 1), PartitionLeases.rebalance(partitions, "a", NOW, NOW + LEASE, 4));
+            assertEquals(Set.of(2, 3), PartitionLeases.rebalance(partitions, "b", NOW, NOW + LEASE, 4));
+        }
+
+        @Test
+        @DisplayName("Should take over the partitions of a node whose lease lapsed")
+        void shouldTakeOverExpiredNode() {
+            ReminderPartitions partitions = new ReminderPartitions();
+            PartitionLeases.rebalance(partitions, "a", NOW, NOW + LEASE, 4);
+            PartitionLeases.rebalance(partitions, "b", NOW, NOW + LEASE, 4);
+            PartitionLeases.rebalance(partitions, "a", NOW, NOW + LEASE, 4);
+            PartitionLeases.rebalance(partitions, "b", NOW, NOW + LEASE, 4);
+
+            Set<Integer> mine = PartitionLeases.rebalance(partitions, "b", NOW + LEASE, NOW + 2 * LEASE, 4);
+
+            assertEquals(Set.of(0, 1, 2, 3), mine);
+            assertEquals(Set.of("b"), partitions.getNodes().keySet());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.erailea.todoappclone.reminder;
+
+import com.erailea.todoappclone.config.ReminderConfig;
+import com.erailea.todoappclone.config.SyncConfig;
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulerTest {
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private TodoListRepository todoListRepository;
+
+    @Mock
+    private PartitionLeases partitionLeases;
+
+    @Mock
+    private ReminderSink sink;
+
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReminderConfig config = new ReminderConfig();
+        config.setEnabled(true);
+        config.setPartitions(4);
+        scheduler = new ReminderScheduler(noteRepository, todoListRepository, partitionLeases, List.of(sink), config, new SyncConfig(),
+                new SimpleMeterRegistry());
+        lenient().when(partitionLeases.refresh(anyLong()))
+                .thenReturn(Set.copyOf(IntStream.range(0, 4).boxed().toList()));
+        lenient().when(noteRepository.findDueBatch(anyLong(), anyLong(), anyInt(), anyList(), anyLong(), anyString(), anyInt()))
+                .thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("tick()")
+    class TickTests {
+        @Test
+        @DisplayName("Should deliver a loaded note once it is within the lead time of its due date")
+        void shouldDeliverDueNote() {
+            Note note = dueIn(5);
+            when(noteRepository.findDueBatch(anyLong(), anyLong(), anyInt(), anyList(), anyLong(), anyString(), anyInt()))
+                    .thenReturn(List.of(note), List.of());
+            when(noteRepository.findAllActiveById(List.of(note.getId()))).thenReturn(List.of(note));
+            when(todoListRepository.findAllActiveById(Set.of(note.getListId())))
+                    .thenReturn(List.of(TestFixtures.createTestTodoList()));
+
+            scheduler.poll();
+            scheduler.tick();
+
+            verify(sink).deliver(note);
+            assertEquals(0, scheduler.pending());
+        }
+
+        @Test
+        @DisplayName("Should not deliver a note whose list was deleted before the cascade reached it")
+        void shouldSkipNoteOfDeletedList() {
+            scheduler.poll();
+            Note note = dueIn(5);
+            scheduler.update(note);
+            when(noteRepository.findAllActiveById(List.of(note.getId()))).thenReturn(List.of(note));
+            when(todoListRepository.findAllActiveById(Set.of(note.getListId()))).thenReturn(List.of());
+
+            scheduler.tick();
+
+            verify(sink, never()).deliver(any());
+        }
+
+        @Test
+        @DisplayName("Should not deliver a note that was marked done after it was scheduled")
+        void shouldSkipNoteDoneSinceScheduled() {
+            scheduler.poll();
+            Note note = dueIn(5);
+            scheduler.update(note);
+            Note done = dueIn(5);
+            done.setDone(true);
+            when(noteRepository.findAllActiveById(List.of(note.getId()))).thenReturn(List.of(done));
+
+            scheduler.tick();
+
+            verify(sink, never()).deliver(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("update()")
+    class UpdateTests {
+        @Test
+        @DisplayName("Should cancel the reminder of a deleted note and leave notes due later for the loader")
+        void shouldCancelAndDefer() {
+            scheduler.poll();
+            Note note = dueIn(5);
+            scheduler.update(note);
+            Note later = dueIn(24 * 60);
+            later.setId("later-note-id");
+            scheduler.update(later);
+            assertEquals(1, scheduler.pending());
+
+            note.setDeletedAt(LocalDateTime.now());
+            scheduler.update(note);
+
+            assertEquals(0, scheduler.pending());
+            scheduler.tick();
+            verifyNoInteractions(sink);
+        }
+    }
+
+    private static Note dueIn(long minutes) {
+        Note note = TestFixtures.createTestNote();
+        note.setDueDate(LocalDateTime.now().plusMinutes(minutes));
+        return note;
+    }
+}
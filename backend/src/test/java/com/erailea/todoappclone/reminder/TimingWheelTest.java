@@ -0,0 +1,93 @@
+package com.erailea.todoappclone.reminder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(Duration.ofSeconds(1), Duration.ofSeconds(60), START);
+    }
+
+    @Nested
+    @DisplayName("schedule()")
+    class ScheduleTests {
+        @Test
+        @DisplayName("Should fire each key in the tick of its deadline and not before")
+        void shouldFireInDeadlineTick() {
+            wheel.schedule("a", START + 5_000);
+            wheel.schedule("b", START + 5_999);
+            wheel.schedule("c", START + 10_000);
+
+            assertEquals(List.of(), wheel.advance(START + 4_999));
+            assertEquals(List.of("a", "b"), wheel.advance(START + 5_000).stream().sorted().toList());
+            assertEquals(List.of("c"), wheel.advance(START + 30_000));
+            assertEquals(0, wheel.size());
+        }
+
+        @Test
+        @DisplayName("Should move a key scheduled again instead of adding a second timer")
+        void shouldReschedule() {
+            wheel.schedule("a", START + 5_000);
+            wheel.schedule("a", START + 20_000);
+
+            assertEquals(1, wheel.size());
+            assertEquals(List.of(), wheel.advance(START + 10_000));
+            assertEquals(List.of("a"), wheel.advance(START + 20_000));
+        }
+
+        @Test
+        @DisplayName("Should fire passed deadlines on the next advance and refuse ones beyond the horizon")
+        void shouldHandleDeadlinesOutsideWheel() {
+            assertTrue(wheel.schedule("late", START - 30_000));
+            assertFalse(wheel.schedule("far", wheel.horizon()));
+            assertTrue(wheel.schedule("edge", wheel.horizon() - 1));
+
+            assertEquals(List.of("late"), wheel.advance(START));
+            assertEquals(1, wheel.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("cancel()")
+    class CancelTests {
+        @Test
+        @DisplayName("Should drop a key from the middle of its slot without touching the others")
+        void shouldCancel() {
+            wheel.schedule("a", START + 5_000);
+            wheel.schedule("b", START + 5_000);
+            wheel.schedule("c", START + 5_000);
+
+            assertTrue(wheel.cancel("b"));
+            assertFalse(wheel.cancel("b"));
+
+            assertEquals(List.of("a", "c"), wheel.advance(START + 5_000).stream().sorted().toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("advance()")
+    class AdvanceTests {
+        @Test
+        @DisplayName("Should expire every entry after a pause longer than the wheel span and keep turning")
+        void shouldCatchUpAfterLongPause() {
+            wheel.schedule("a", START + 59_000);
+
+            assertEquals(List.of("a"), wheel.advance(START + 600_000));
+
+            assertTrue(wheel.schedule("b", START + 601_000));
+            assertEquals(List.of("b"), wheel.advance(START + 601_000));
+        }
+    }
+}
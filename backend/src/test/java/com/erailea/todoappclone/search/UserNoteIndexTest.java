@@ -0,0 +1,103 @@
+package com.erailea.todoappclone.search;
+
+import com.erailea.todoappclone.model.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserNoteIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private UserNoteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserNoteIndex();
+        index.put(note("milk", "Buy milk and bread", "list-a"));
+        index.put(note("milkshake", "Milkshake recipe", "list-a"));
+        index.put(note("call", "Call the bakery about bread", "list-b"));
+    }
+
+    @Nested
+    @DisplayName("search()")
+    class SearchTests {
+        @Test
+        @DisplayName("Should match a partly typed word and rank the exact word above its completions")
+        void shouldMatchPrefixesAndRankExactFirst() {
+            assertEquals(List.of("milk", "milkshake"), ids(search("Milk")));
+            assertEquals(List.of("milk", "milkshake"), ids(search("mil")));
+        }
+
+        @Test
+        @DisplayName("Should only return notes matching every word, ignoring case and accents")
+        void shouldRequireEveryTerm() {
+            assertEquals(List.of("call"), ids(search("BREAD bäk")));
+            assertEquals(List.of(), search("milk bakery"));
+        }
+
+        @Test
+        @DisplayName("Should stop matching notes once removed, updated, soft-deleted or in a removed list")
+        void shouldFollowWrites() {
+            Note renamed = note("milk", "Buy oat drink", "list-a");
+            renamed.setUpdatedAt(NOW.plusMinutes(1));
+            index.put(renamed);
+            Note deleted = note("call", "Call the bakery about bread", "list-b");
+            deleted.setDeletedAt(NOW);
+            index.put(deleted);
+
+            assertEquals(List.of(), search("bread"));
+            assertEquals(List.of("milk"), ids(search("oat")));
+
+            index.removeList("list-a");
+
+            assertEquals(0, index.size());
+            assertEquals(List.of(), search("milkshake"));
+        }
+
+        @Test
+        @DisplayName("Should ignore a copy older than the one indexed")
+        void shouldIgnoreStaleCopy() {
+            Note stale = note("milk", "Old content", "list-a");
+            stale.setUpdatedAt(NOW.minusMinutes(1));
+
+            index.put(stale);
+
+            assertEquals(List.of("milk"), ids(search("buy")));
+            assertEquals(List.of(), search("old"));
+        }
+    }
+
+    @Nested
+    @DisplayName("advance()")
+    class AdvanceTests {
+        @Test
+        @DisplayName("Should only move to a version directly after the current one")
+        void shouldSkipGaps() {
+            index.syncedTo(0L, 3);
+
+            index.advance(5);
+            assertEquals(3, index.version());
+
+            index.advance(4);
+            assertEquals(4, index.version());
+        }
+    }
+
+    private List<Note> search(String query) {
+        return index.search(UserNoteIndex.tokenize(query), 10);
+    }
+
+    private static List<String> ids(List<Note> notes) {
+        return notes.stream().map(Note::getId).toList();
+    }
+
+    private static Note note(String id, String content, String listId) {
+        return new Note(id, content, false, NOW, null, listId, "user", null, NOW, 0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.erailea.todoappclone.service;
+
+import com.erailea.todoappclone.config.ArchiveConfig;
+import com.erailea.todoappclone.dto.ArchiveEntry;
+import com.erailea.todoappclone.dto.response.ImportResponse;
+import com.erailea.todoappclone.exception.BusinessException;
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
+import com.erailea.todoappclone.repository.ReactiveTodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.service.impl.ArchiveServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.couchbase.core.ReactiveCouchbaseTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveServiceTest {
+    private static final String EXPORTED_LIST_ID = "exported-list-id";
+
+    @Mock
+    private ReactiveTodoListRepository reactiveTodoListRepository;
+
+    @Mock
+    private ReactiveNoteRepository reactiveNoteRepository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ReactiveCouchbaseTemplate reactiveCouchbaseTemplate;
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    @Spy
+    private ArchiveConfig archiveConfig = new ArchiveConfig();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ArchiveServiceImpl archiveService;
+
+    @Nested
+    @DisplayName("exportArchive()")
+    class ExportArchiveTests {
+        @Test
+        @DisplayName("Should emit each batch of lists ahead of their notes")
+        void shouldEmitListsBeforeTheirNotes() {
+            TodoList first = TestFixtures.createTestTodoList();
+            TodoList second = TestFixtures.createTestTodoList();
+            second.setId("second-list-id");
+            Note note = TestFixtures.createTestNote();
+            when(reactiveTodoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID))
+                    .thenReturn(Flux.just(first, second));
+            when(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(
+                    List.of(TestFixtures.TEST_LIST_ID, "second-list-id"))).thenReturn(Flux.just(note));
+
+            List<ArchiveEntry> entries = archiveService.exportArchive(TestFixtures.TEST_USER_ID).collectList().block();
+
+            assertEquals(List.of(ArchiveEntry.of(first), ArchiveEntry.of(second), ArchiveEntry.of(note)), entries);
+        }
+    }
+
+    @Nested
+    @DisplayName("importArchive()")
+    class ImportArchiveTests {
+        @Test
+        @DisplayName("Should give lists and notes new ids and point notes at their new list")
+        void shouldRemapIds() {
+            when(reactiveCouchbaseTemplate.insertById(TodoList.class).one(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+            when(reactiveCouchbaseTemplate.insertById(Note.class).one(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+            ImportResponse response = archiveService.importArchive(TestFixtures.TEST_USER_ID, archive(
+                    "{\"list\":{\"id\":\"" + EXPORTED_LIST_ID + "\",\"title\":\"Groceries\",\"userId\":\"someone-else\"}}",
+                    "{\"note\":{\"id\":\"exported-note-id\",\"content\":\"Milk\",\"done\":true,\"listId\":\"" + EXPORTED_LIST_ID + "\"}}",
+                    "{\"note\":{\"id\":\"orphan-note-id\",\"content\":\"Eggs\",\"listId\":\"unknown-list-id\"}}"),
+                    ArchiveService.IdMode.REMAP);
+
+            assertEquals(new ImportResponse(1, 1, 1), response);
+            ArgumentCaptor<TodoList> list = ArgumentCaptor.forClass(TodoList.class);
+            verify(reactiveCouchbaseTemplate.insertById(TodoList.class)).one(list.capture());
+            ArgumentCaptor<Note> note = ArgumentCaptor.forClass(Note.class);
+            verify(reactiveCouchbaseTemplate.insertById(Note.class)).one(note.capture());
+            assertNotEquals(EXPORTED_LIST_ID, list.getValue().getId());
+            assertEquals(TestFixtures.TEST_USER_ID, list.getValue().getUserId());
+            assertNotEquals("exported-note-id", note.getValue().getId());
+            assertEquals(list.getValue().getId(), note.getValue().getListId());
+            assertEquals(TestFixtures.TEST_USER_ID, note.getValue().getUserId());
+            assertTrue(note.getValue().isDone());
+            verify(userVersionRepository).bump(TestFixtures.TEST_USER_ID);
+        }
+
+        @Test
+        @DisplayName("Should skip the notes of a list whose preserved id is already taken")
+        void shouldNotAttachNotesToExistingList() {
+            when(reactiveCouchbaseTemplate.insertById(TodoList.class).one(any()))
+                    .thenReturn(Mono.error(new DuplicateKeyException("exists")));
+
+            ImportResponse response = archiveService.importArchive(TestFixtures.TEST_USER_ID, archive(
+                    "{\"list\":{\"id\":\"" + EXPORTED_LIST_ID + "\",\"title\":\"Groceries\"}}",
+                    "{\"note\":{\"id\":\"exported-note-id\",\"content\":\"Milk\",\"listId\":\"" + EXPORTED_LIST_ID + "\"}}"),
+                    ArchiveService.IdMode.PRESERVE);
+
+            assertEquals(new ImportResponse(0, 0, 2), response);
+            verify(reactiveCouchbaseTemplate.insertById(Note.class), never()).one(any());
+            verify(userVersionRepository, never()).bump(any());
+        }
+
+        @Test
+        @DisplayName("Should reject an archive with a line that is not JSON")
+        void shouldRejectMalformedArchive() {
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    archiveService.importArchive(TestFixtures.TEST_USER_ID, archive("not json"), ArchiveService.IdMode.REMAP));
+
+            assertEquals("INVALID_ARCHIVE", exception.getErrorCode());
+        }
+
+        private InputStream archive(String... lines) {
+            return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.erailea.todoappclone.service;
 
+import com.erailea.todoappclone.cache.UserCache;
 import com.erailea.todoappclone.dto.request.AuthenticateRequest;
 import com.erailea.todoappclone.dto.request.RegisterRequest;
 import com.erailea.todoappclone.dto.response.AuthResponse;
@@ -7,7 +8,6 @@ import com.erailea.todoappclone.exception.BusinessException;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
 import com.erailea.todoappclone.fixture.TestFixtures;
 import com.erailea.todoappclone.model.User;
-import com.erailea.todoappclone.repository.UserRepository;
 import com.erailea.todoappclone.service.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -40,7 +41,7 @@ class AuthServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -62,27 +63,38 @@ class AuthServiceTest {
         @Test
         @DisplayName("Should register user successfully when email is not taken")
         void shouldRegisterUserSuccessfully() {
-            when(userRepository.existsByEmail(request.getEmail())).thenReturn(false);
+            when(userCache.existsByEmail(request.getEmail())).thenReturn(false);
             when(passwordEncoder.encode(request.getPassword())).thenReturn("encoded-password");
-            when(userRepository.save(any(User.class))).thenReturn(expectedUser);
-            when(jwtService.generateToken(expectedUser.getEmail())).thenReturn(expectedToken);
+            when(userCache.create(any(User.class))).thenReturn(expectedUser);
+            when(jwtService.generateToken(expectedUser)).thenReturn(expectedToken);
 
             AuthResponse result = authService.register(request);
 
             assertNotNull(result);
             assertEquals(expectedToken, result.getToken());
+            assertEquals(expectedUser.getId(), result.getUserId());
             assertEquals(expectedUser.getEmail(), result.getEmail());
             assertEquals(expectedUser.getFullName(), result.getFullName());
-            verify(userRepository).save(any(User.class));
+            verify(userCache).create(any(User.class));
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when a concurrent registration claims the email")
+        void shouldThrowExceptionWhenEmailClaimedConcurrently() {
+            when(userCache.existsByEmail(request.getEmail())).thenReturn(false);
+            when(passwordEncoder.encode(request.getPassword())).thenReturn("encoded-password");
+            when(userCache.create(any(User.class))).thenThrow(new DuplicateKeyException("exists"));
+
+            assertThrows(BusinessException.class, () -> authService.register(request));
         }
 
         @Test
         @DisplayName("Should throw BusinessException when email is already taken")
         void shouldThrowExceptionWhenEmailExists() {
-            when(userRepository.existsByEmail(request.getEmail())).thenReturn(true);
+            when(userCache.existsByEmail(request.getEmail())).thenReturn(true);
 
             assertThrows(BusinessException.class, () -> authService.register(request));
-            verify(userRepository, never()).save(any(User.class));
+            verify(userCache, never()).create(any(User.class));
         }
     }
 
@@ -103,8 +115,8 @@ class AuthServiceTest {
         @Test
         @DisplayName("Should authenticate user successfully with valid credentials")
         void shouldAuthenticateUserSuccessfully() {
-            when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(expectedUser));
-            when(jwtService.generateToken(expectedUser.getEmail())).thenReturn(expectedToken);
+            when(userCache.findByEmail(request.getEmail())).thenReturn(Optional.of(expectedUser));
+            when(jwtService.generateToken(expectedUser)).thenReturn(expectedToken);
 
             AuthResponse result = authService.authenticate(request);
 
@@ -119,7 +131,7 @@ class AuthServiceTest {
         @Test
         @DisplayName("Should throw ResourceNotFoundException when user does not exist")
         void shouldThrowExceptionWhenUserDoesNotExist() {
-            when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
+            when(userCache.findByEmail(request.getEmail())).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () -> authService.authenticate(request));
         }
@@ -1,6 +1,7 @@
 package com.erailea.todoappclone.service;
 
 import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.User;
 import com.erailea.todoappclone.service.impl.JwtServiceImpl;
 import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +32,8 @@ class JwtServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(jwtService, "secretKey", TEST_SECRET_KEY);
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", TEST_EXPIRATION);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 100L);
+        jwtService.init();
     }
 
     @Nested
@@ -59,6 +63,36 @@ class JwtServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("extractUser()")
+    class ExtractUserTests {
+        @Test
+        @DisplayName("Should rebuild user from identity claims")
+        void shouldRebuildUserFromClaims() {
+            String token = jwtService.generateToken(TestFixtures.createTestUser());
+            Claims claims = jwtService.validateToken(token).orElseThrow();
+
+            Optional<User> user = jwtService.extractUser(claims);
+
+            assertTrue(user.isPresent());
+            assertEquals(TestFixtures.TEST_USER_ID, user.get().getId());
+            assertEquals(TestFixtures.TEST_USER_EMAIL, user.get().getEmail());
+            assertEquals(TestFixtures.TEST_USER_FULL_NAME, user.get().getFullName());
+            assertNull(user.get().getPassword());
+        }
+
+        @Test
+        @DisplayName("Should return empty when token has no identity claims")
+        void shouldReturnEmptyForLegacyToken() {
+            String token = jwtService.generateToken(TestFixtures.TEST_USER_EMAIL);
+            Claims claims = jwtService.validateToken(token).orElseThrow();
+
+            Optional<User> user = jwtService.extractUser(claims);
+
+            assertTrue(user.isEmpty());
+        }
+    }
+
     @Nested
     @DisplayName("extractUsername()")
     class ExtractUsernameTests {
@@ -93,6 +127,55 @@ class JwtServiceTest {
 
             assertFalse(isValid);
         }
+
+        @Test
+        @DisplayName("Should return false for expired token")
+        void shouldReturnFalseForExpiredToken() {
+            ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+            String token = jwtService.generateToken(TestFixtures.TEST_USER_EMAIL);
+
+            boolean isValid = jwtService.isTokenValid(token);
+
+            assertFalse(isValid);
+        }
+    }
+
+    @Nested
+    @DisplayName("validateToken()")
+    class ValidateTokenTests {
+        @Test
+        @DisplayName("Should return claims for valid token")
+        void shouldReturnClaimsForValidToken() {
+            String token = jwtService.generateToken(TestFixtures.TEST_USER_EMAIL);
+
+            Optional<Claims> claims = jwtService.validateToken(token);
+
+            assertTrue(claims.isPresent());
+            assertEquals(TestFixtures.TEST_USER_EMAIL, claims.get().getSubject());
+        }
+
+        @Test
+        @DisplayName("Should reuse verified claims for the same token")
+        void shouldReuseVerifiedClaims() {
+            String token = jwtService.generateToken(TestFixtures.TEST_USER_EMAIL);
+
+            Claims first = jwtService.validateToken(token).orElseThrow();
+            Claims second = jwtService.validateToken(token).orElseThrow();
+
+            assertSame(first, second);
+        }
+
+        @Test
+        @DisplayName("Should return empty for token signed with another key")
+        void shouldReturnEmptyForForeignSignature() {
+            String token = jwtService.generateToken(TestFixtures.TEST_USER_EMAIL);
+            ReflectionTestUtils.setField(jwtService, "secretKey", TEST_SECRET_KEY.replace('4', '5'));
+            jwtService.init();
+
+            Optional<Claims> claims = jwtService.validateToken(token);
+
+            assertTrue(claims.isEmpty());
+        }
     }
 
     @Nested
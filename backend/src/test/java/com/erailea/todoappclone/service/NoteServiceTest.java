@@ -1,13 +1,31 @@
 package com.erailea.todoappclone.service;
 
+import com.erailea.todoappclone.concurrent.FanOutExecutor;
+import com.erailea.todoappclone.config.EmbeddedNotesConfig;
 import com.erailea.todoappclone.dto.request.CreateNoteRequest;
+import com.erailea.todoappclone.dto.request.NoteOperation;
 import com.erailea.todoappclone.dto.request.UpdateNoteRequest;
+import com.erailea.todoappclone.dto.response.NoteBatchResult;
+import com.erailea.todoappclone.events.ChangeEvent;
+import com.erailea.todoappclone.events.ChangeEventHub;
+import com.erailea.todoappclone.exception.BusinessException;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
 import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.EmbeddedNote;
 import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.CursorPage;
+import com.erailea.todoappclone.pagination.ListCursor;
+import com.erailea.todoappclone.pagination.NoteCursor;
+import com.erailea.todoappclone.reminder.ReminderScheduler;
 import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
 import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.search.NoteSearchIndex;
 import com.erailea.todoappclone.service.impl.NoteServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,14 +33,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +68,30 @@ class NoteServiceTest {
     @Mock
     private TodoListRepository todoListRepository;
 
+    @Mock
+    private ReactiveNoteRepository reactiveNoteRepository;
+
+    @Spy
+    private EmbeddedNotesConfig embeddedNotesConfig = new EmbeddedNotesConfig();
+
+    @Spy
+    private FanOutExecutor fanOutExecutor = new FanOutExecutor(true);
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    @Mock
+    private ChangeEventHub changeEventHub;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private NoteServiceImpl noteService;
 
@@ -53,8 +110,8 @@ class NoteServiceTest {
         @Test
         @DisplayName("Should create note successfully when list exists and belongs to user")
         void shouldCreateNoteSuccessfully() {
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.of(TestFixtures.createTestTodoList()));
             when(noteRepository.save(any(Note.class))).thenReturn(expectedNote);
 
             Note result = noteService.createNote(request, TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID);
@@ -62,14 +119,47 @@ class NoteServiceTest {
             assertNotNull(result);
             assertEquals(expectedNote.getContent(), result.getContent());
             assertEquals(expectedNote.getListId(), result.getListId());
-            verify(noteRepository).save(any(Note.class));
+            verify(noteRepository).save(argThat(note -> TestFixtures.TEST_USER_ID.equals(note.getUserId())));
+        }
+
+        @Test
+        @DisplayName("Should copy the note into a list that embeds its notes")
+        void shouldEmbedNoteInList() {
+            embeddedNotesConfig.setEnabled(true);
+            TodoList list = TestFixtures.createTestTodoList();
+            list.setNotes(new HashMap<>());
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.of(list));
+            when(noteRepository.save(any(Note.class))).thenReturn(expectedNote);
+
+            noteService.createNote(request, TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID);
+
+            verify(todoListRepository).insertEmbeddedNote(eq(TestFixtures.TEST_LIST_ID), eq(TestFixtures.TEST_NOTE_ID),
+                    any(EmbeddedNote.class));
+        }
+
+        @Test
+        @DisplayName("Should flag the list as overflowed instead of embedding past the cap")
+        void shouldMarkOverflowWhenEmbeddedNotesAreFull() {
+            embeddedNotesConfig.setEnabled(true);
+            embeddedNotesConfig.setMaxSize(1);
+            TodoList list = TestFixtures.createTestTodoList();
+            list.setNotes(new HashMap<>(Map.of("existing-note-id", EmbeddedNote.of(TestFixtures.createTestNote()))));
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.of(list));
+            when(noteRepository.save(any(Note.class))).thenReturn(expectedNote);
+
+            noteService.createNote(request, TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID);
+
+            verify(todoListRepository).markNotesOverflow(TestFixtures.TEST_LIST_ID);
+            verify(todoListRepository, never()).insertEmbeddedNote(anyString(), anyString(), any());
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when list does not exist")
         void shouldThrowExceptionWhenListDoesNotExist() {
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(0L);
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () ->
                     noteService.createNote(request, TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID));
@@ -77,62 +167,165 @@ class NoteServiceTest {
     }
 
     @Nested
-    @DisplayName("getNotesByListId()")
-    class GetNotesByListIdTests {
+    @DisplayName("getNotesByListIdReactive()")
+    class GetNotesByListIdReactiveTests {
         @Test
-        @DisplayName("Should return notes when list exists and belongs to user")
-        void shouldReturnNotesWhenListExists() {
-            List<Note> expectedNotes = List.of(TestFixtures.createTestNote());
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
-            when(noteRepository.findAllByListIdAndDeletedAtIsNullOrderByDueDate(TestFixtures.TEST_LIST_ID))
-                    .thenReturn(expectedNotes);
+        @DisplayName("Should return a page from the query and a cursor when more notes follow")
+        void shouldReturnPageWithNextCursor() {
+            Note first = TestFixtures.createTestNote();
+            Note second = TestFixtures.createTestNote();
+            second.setId("second-note-id");
+            when(todoListRepository.findActiveByIdAndUserIdReactive(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Mono.just(TestFixtures.createTestTodoList()));
+            NoteCursor start = NoteCursor.START;
+            when(reactiveNoteRepository.findPageByListId(TestFixtures.TEST_LIST_ID, start.dueDate(), start.createdAt(), start.id(), 2))
+                    .thenReturn(Flux.just(first, second));
+
+            CursorPage<Note> page = noteService.getNotesByListIdReactive(
+                    TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID, null, 1).block();
+
+            assertEquals(List.of(first), page.items());
+            assertEquals(NoteCursor.of(first), NoteCursor.decode(page.nextCursor()));
+        }
 
-            List<Note> result = noteService.getNotesByListId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID);
+        @Test
+        @DisplayName("Should page embedded notes after the cursor, undated notes last")
+        void shouldPageEmbeddedNotesAfterCursor() {
+            embeddedNotesConfig.setEnabled(true);
+            Note first = TestFixtures.createTestNote();
+            Note later = TestFixtures.createTestNote();
+            later.setDueDate(TestFixtures.TEST_DUE_DATE.plusDays(1));
+            Note undated = TestFixtures.createTestNote();
+            undated.setDueDate(null);
+            TodoList list = TestFixtures.createTestTodoList();
+            list.setNotes(new HashMap<>(Map.of(
+                    "undated", EmbeddedNote.of(undated),
+                    "later", EmbeddedNote.of(later),
+                    TestFixtures.TEST_NOTE_ID, EmbeddedNote.of(first))));
+            when(todoListRepository.findActiveByIdAndUserIdReactive(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Mono.just(list));
+            String cursor = NoteCursor.of(first).encode();
+
+            CursorPage<Note> page = noteService.getNotesByListIdReactive(
+                    TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID, cursor, 50).block();
+
+            assertEquals(List.of("later", "undated"), page.items().stream().map(Note::getId).toList());
+            assertNull(page.nextCursor());
+            verify(reactiveNoteRepository, never()).findPageByListId(any(), anyLong(), anyLong(), any(), anyInt());
+        }
 
-            assertNotNull(result);
-            assertEquals(expectedNotes.size(), result.size());
-            assertEquals(expectedNotes.get(0).getContent(), result.get(0).getContent());
+        @Test
+        @DisplayName("Should error with ResourceNotFoundException when list does not exist")
+        void shouldErrorWhenListDoesNotExist() {
+            when(todoListRepository.findActiveByIdAndUserIdReactive(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Mono.empty());
+
+            Mono<CursorPage<Note>> result = noteService.getNotesByListIdReactive(
+                    TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID, null, 50);
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+            verify(reactiveNoteRepository, never()).findPageByListId(any(), anyLong(), anyLong(), any(), anyInt());
         }
 
         @Test
-        @DisplayName("Should throw ResourceNotFoundException when list does not exist")
-        void shouldThrowExceptionWhenListDoesNotExist() {
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(0L);
+        @DisplayName("Should reject a cursor issued for lists")
+        void shouldRejectListCursor() {
+            String listCursor = ListCursor.of(TestFixtures.createTestTodoList()).encode();
 
-            assertThrows(ResourceNotFoundException.class, () ->
-                    noteService.getNotesByListId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID));
+            BusinessException exception = assertThrows(BusinessException.class, () -> noteService.getNotesByListIdReactive(
+                    TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID, listCursor, 50));
+            assertEquals("INVALID_CURSOR", exception.getErrorCode());
+        }
+    }
+
+    @Nested
+    @DisplayName("getAgenda()")
+    class GetAgendaTests {
+        @Test
+        @DisplayName("Should query the due-date range across lists and return a cursor when more notes follow")
+        void shouldReturnPageOfRange() {
+            Note first = TestFixtures.createTestNote();
+            Note second = TestFixtures.createTestNote();
+            second.setId("second-note-id");
+            LocalDateTime from = TestFixtures.TEST_DUE_DATE.minusDays(1);
+            LocalDateTime to = TestFixtures.TEST_DUE_DATE.plusDays(1);
+            NoteCursor start = NoteCursor.START;
+            when(reactiveNoteRepository.findAgendaPage(TestFixtures.TEST_USER_ID, NoteCursor.dueDateKey(from), NoteCursor.dueDateKey(to),
+                    start.dueDate(), start.createdAt(), start.id(), 2)).thenReturn(Flux.just(first, second));
+
+            CursorPage<Note> page = noteService.getAgenda(TestFixtures.TEST_USER_ID, from, to, null, 1).block();
+
+            assertEquals(List.of(first), page.items());
+            assertEquals(NoteCursor.of(first), NoteCursor.decode(page.nextCursor()));
+        }
+
+        @Test
+        @DisplayName("Should leave the range open on the sides not given")
+        void shouldDefaultToOpenRange() {
+            when(reactiveNoteRepository.findAgendaPage(any(), anyLong(), anyLong(), anyLong(), anyLong(), any(), anyInt()))
+                    .thenReturn(Flux.empty());
+
+            CursorPage<Note> page = noteService.getAgenda(TestFixtures.TEST_USER_ID, null, null, null, 50).block();
+
+            assertEquals(List.of(), page.items());
+            assertNull(page.nextCursor());
+            verify(reactiveNoteRepository).findAgendaPage(eq(TestFixtures.TEST_USER_ID), eq(Long.MIN_VALUE), eq(NoteCursor.UNDATED),
+                    anyLong(), anyLong(), any(), eq(51));
+        }
+
+        @Test
+        @DisplayName("Should reject a range that ends before it starts")
+        void shouldRejectEmptyRange() {
+            BusinessException exception = assertThrows(BusinessException.class, () -> noteService.getAgenda(
+                    TestFixtures.TEST_USER_ID, TestFixtures.TEST_DUE_DATE, TestFixtures.TEST_DUE_DATE, null, 50));
+
+            assertEquals("INVALID_RANGE", exception.getErrorCode());
+            verify(reactiveNoteRepository, never()).findAgendaPage(any(), anyLong(), anyLong(), anyLong(), anyLong(), any(), anyInt());
         }
     }
 
     @Nested
-    @DisplayName("getNoteById()")
-    class GetNoteByIdTests {
+    @DisplayName("getNoteByIdReactive()")
+    class GetNoteByIdReactiveTests {
         @Test
-        @DisplayName("Should return note when it exists and belongs to user's list")
+        @DisplayName("Should return note owned by user without a list lookup")
         void shouldReturnNoteWhenExists() {
             Note expectedNote = TestFixtures.createTestNote();
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
-                    .thenReturn(Optional.of(expectedNote));
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
+            when(noteRepository.findActiveByIdReactive(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Mono.just(expectedNote));
 
-            Note result = noteService.getNoteById(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID);
+            Note result = noteService.getNoteByIdReactive(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID).block();
 
-            assertNotNull(result);
-            assertEquals(expectedNote.getContent(), result.getContent());
-            assertEquals(expectedNote.getId(), result.getId());
+            assertEquals(expectedNote, result);
+            verify(todoListRepository, never()).findActiveByIdAndUserIdReactive(any(), any());
         }
 
         @Test
-        @DisplayName("Should throw ResourceNotFoundException when note does not exist")
-        void shouldThrowExceptionWhenNoteDoesNotExist() {
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
-                    .thenReturn(Optional.empty());
+        @DisplayName("Should error with ResourceNotFoundException when note belongs to another user")
+        void shouldErrorWhenNoteBelongsToAnotherUser() {
+            Note otherUsersNote = TestFixtures.createTestNote();
+            otherUsersNote.setUserId("other-user-id");
+            when(noteRepository.findActiveByIdReactive(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Mono.just(otherUsersNote));
 
-            assertThrows(ResourceNotFoundException.class, () ->
-                    noteService.getNoteById(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID));
+            Mono<Note> result = noteService.getNoteByIdReactive(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID);
+
+            assertThrows(ResourceNotFoundException.class, result::block);
+        }
+
+        @Test
+        @DisplayName("Should fall back to list ownership check for notes without userId")
+        void shouldCheckListOwnershipForLegacyNote() {
+            Note legacyNote = TestFixtures.createTestNote();
+            legacyNote.setUserId(null);
+            when(noteRepository.findActiveByIdReactive(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Mono.just(legacyNote));
+            when(todoListRepository.findActiveByIdAndUserIdReactive(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Mono.just(TestFixtures.createTestTodoList()));
+
+            Note result = noteService.getNoteByIdReactive(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID).block();
+
+            assertEquals(TestFixtures.TEST_USER_ID, result.getUserId());
         }
     }
 
@@ -151,22 +344,68 @@ class NoteServiceTest {
         @Test
         @DisplayName("Should update note successfully when it exists and belongs to user's list")
         void shouldUpdateNoteSuccessfully() {
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
+            existingNote.setVersion(1L);
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
                     .thenReturn(Optional.of(existingNote));
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
-            when(noteRepository.save(any(Note.class))).thenReturn(existingNote);
+            when(noteRepository.patch(eq(TestFixtures.TEST_NOTE_ID), eq(1L), any())).thenReturn(2L);
 
             Note result = noteService.updateNote(TestFixtures.TEST_NOTE_ID, request, TestFixtures.TEST_USER_ID);
 
             assertNotNull(result);
-            verify(noteRepository).save(any(Note.class));
+            assertEquals("Updated Content", result.getContent());
+            assertEquals(2L, result.getVersion());
+            verify(noteRepository, never()).save(any(Note.class));
+        }
+
+        @Test
+        @DisplayName("Should write only the done flag, the change stamp and the owner when toggling completion")
+        void shouldPatchOnlyChangedFields() {
+            UpdateNoteRequest toggle = new UpdateNoteRequest();
+            toggle.setDone(true);
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Optional.of(existingNote));
+
+            noteService.updateNote(TestFixtures.TEST_NOTE_ID, toggle, TestFixtures.TEST_USER_ID);
+
+            verify(noteRepository).patch(eq(TestFixtures.TEST_NOTE_ID), eq(0L), argThat(changes ->
+                    changes.keySet().equals(Set.of("done", "updatedAt", "userId")) && Boolean.TRUE.equals(changes.get("done"))));
+            verify(todoListRepository, never()).findActiveByIdAndUserId(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should store the resolved userId on a note written before userId existed")
+        void shouldPersistUserIdOnLegacyNote() {
+            existingNote.setUserId(null);
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Optional.of(existingNote));
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.of(TestFixtures.createTestTodoList()));
+
+            noteService.updateNote(TestFixtures.TEST_NOTE_ID, request, TestFixtures.TEST_USER_ID);
+
+            verify(noteRepository).patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), argThat(changes ->
+                    TestFixtures.TEST_USER_ID.equals(changes.get("userId"))));
+        }
+
+        @Test
+        @DisplayName("Should re-read and re-apply the patch when the note changed concurrently")
+        void shouldRetryOnCasMismatch() {
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Optional.of(existingNote));
+            when(noteRepository.patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), any()))
+                    .thenThrow(new OptimisticLockingFailureException("changed"))
+                    .thenReturn(5L);
+
+            Note result = noteService.updateNote(TestFixtures.TEST_NOTE_ID, request, TestFixtures.TEST_USER_ID);
+
+            assertEquals(5L, result.getVersion());
+            verify(noteRepository, times(2)).findActiveById(TestFixtures.TEST_NOTE_ID);
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when note does not exist")
         void shouldThrowExceptionWhenNoteDoesNotExist() {
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
                     .thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () ->
@@ -181,24 +420,168 @@ class NoteServiceTest {
         @DisplayName("Should delete note successfully when it exists and belongs to user's list")
         void shouldDeleteNoteSuccessfully() {
             Note existingNote = TestFixtures.createTestNote();
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
                     .thenReturn(Optional.of(existingNote));
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
-            when(noteRepository.save(any(Note.class))).thenReturn(existingNote);
+            when(noteRepository.patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), any())).thenReturn(5L);
 
             assertDoesNotThrow(() -> noteService.deleteNote(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID));
-            verify(noteRepository).save(any(Note.class));
+            verify(noteRepository).patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), argThat(changes ->
+                    changes.keySet().equals(Set.of("deletedAt", "updatedAt", "userId"))));
+            verify(noteRepository, never()).save(any(Note.class));
+            verify(userVersionRepository).bump(TestFixtures.TEST_USER_ID);
+            verify(noteSearchIndex).update(TestFixtures.TEST_USER_ID, existingNote, 0L);
+            verify(reminderScheduler).update(existingNote);
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when note does not exist")
         void shouldThrowExceptionWhenNoteDoesNotExist() {
-            when(noteRepository.findByIdAndDeletedAtIsNull(TestFixtures.TEST_NOTE_ID))
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
                     .thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () ->
                     noteService.deleteNote(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID));
+            verify(userVersionRepository, never()).bump(any());
+        }
+
+        @Test
+        @DisplayName("Should re-read and re-apply the soft delete when the note changed concurrently")
+        void shouldRetryOnCasMismatch() {
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Optional.of(TestFixtures.createTestNote()));
+            when(noteRepository.patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), any()))
+                    .thenThrow(new OptimisticLockingFailureException("changed"))
+                    .thenReturn(5L);
+
+            noteService.deleteNote(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID);
+
+            verify(noteRepository, times(2)).findActiveById(TestFixtures.TEST_NOTE_ID);
+            verify(userVersionRepository, times(1)).bump(TestFixtures.TEST_USER_ID);
+        }
+
+        @Test
+        @DisplayName("Should report a conflict when the note keeps changing")
+        void shouldFailAfterRepeatedCasMismatch() {
+            when(noteRepository.findActiveById(TestFixtures.TEST_NOTE_ID))
+                    .thenReturn(Optional.of(TestFixtures.createTestNote()));
+            when(noteRepository.patch(eq(TestFixtures.TEST_NOTE_ID), anyLong(), any()))
+                    .thenThrow(new OptimisticLockingFailureException("changed"));
+
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    noteService.deleteNote(TestFixtures.TEST_NOTE_ID, TestFixtures.TEST_USER_ID));
+            assertEquals("CONCURRENT_MODIFICATION", exception.getErrorCode());
+            verify(userVersionRepository, never()).bump(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("applyBatch()")
+    class ApplyBatchTests {
+        private static final String OTHER_NOTE_ID = "other-note-id";
+
+        @Test
+        @DisplayName("Should fetch notes and lists once and write every operation concurrently")
+        void shouldApplyMixedBatch() {
+            Note done = TestFixtures.createTestNote();
+            Note removed = TestFixtures.createTestNote();
+            removed.setId(OTHER_NOTE_ID);
+            when(noteRepository.findAllActiveById(Set.of(TestFixtures.TEST_NOTE_ID, OTHER_NOTE_ID)))
+                    .thenReturn(List.of(done, removed));
+            when(todoListRepository.findAllActiveById(Set.of(TestFixtures.TEST_LIST_ID)))
+                    .thenReturn(List.of(TestFixtures.createTestTodoList()));
+            when(reactiveNoteRepository.save(any(Note.class))).thenAnswer(invocation -> {
+                Note created = invocation.getArgument(0);
+                created.setId("created-note-id");
+                return Mono.just(created);
+            });
+            when(noteRepository.patchReactive(anyString(), anyLong(), any())).thenReturn(Mono.just(5L));
+            when(userVersionRepository.bump(TestFixtures.TEST_USER_ID)).thenReturn(7L);
+
+            List<NoteBatchResult> results = noteService.applyBatch(List.of(
+                    create(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_NOTE_CONTENT),
+                    update(TestFixtures.TEST_NOTE_ID, true),
+                    delete(OTHER_NOTE_ID)), TestFixtures.TEST_USER_ID);
+
+            assertEquals(List.of(201, 200, 200), results.stream().map(NoteBatchResult::getStatus).toList());
+            assertEquals("created-note-id", results.get(0).getNote().getId());
+            assertTrue(results.get(1).getNote().isDone());
+            assertNotNull(results.get(2).getNote().getDeletedAt());
+            verify(noteRepository).patchReactive(eq(TestFixtures.TEST_NOTE_ID), eq(0L), argThat(changes ->
+                    changes.keySet().equals(Set.of("done", "updatedAt", "userId"))));
+            verify(noteRepository).patchReactive(eq(OTHER_NOTE_ID), eq(0L), argThat(changes ->
+                    changes.keySet().equals(Set.of("deletedAt", "updatedAt", "userId"))));
+            verify(noteRepository, never()).findActiveById(any());
+            verify(todoListRepository, never()).findActiveById(any());
+            // One version for the whole batch, one event per write
+            verify(userVersionRepository, times(1)).bump(TestFixtures.TEST_USER_ID);
+            verify(changeEventHub, times(3)).publish(eq(TestFixtures.TEST_USER_ID), argThat(event -> event.version() == 7L));
+        }
+
+        @Test
+        @DisplayName("Should fail only the operations that are invalid, not owned or conflicting")
+        void shouldReportFailuresPerOperation() {
+            Note conflicting = TestFixtures.createTestNote();
+            Note foreign = TestFixtures.createTestNote();
+            foreign.setId(OTHER_NOTE_ID);
+            foreign.setUserId("other-user-id");
+            when(noteRepository.findAllActiveById(any())).thenReturn(List.of(conflicting, foreign));
+            when(noteRepository.patchReactive(eq(TestFixtures.TEST_NOTE_ID), anyLong(), any()))
+                    .thenReturn(Mono.error(new OptimisticLockingFailureException("changed")));
+
+            List<NoteBatchResult> results = noteService.applyBatch(List.of(
+                    create(TestFixtures.TEST_LIST_ID, " "),
+                    update(TestFixtures.TEST_NOTE_ID, true),
+                    delete(OTHER_NOTE_ID),
+                    create("missing-list-id", TestFixtures.TEST_NOTE_CONTENT)), TestFixtures.TEST_USER_ID);
+
+            assertEquals(List.of(400, 409, 404, 404), results.stream().map(NoteBatchResult::getStatus).toList());
+            assertEquals("VALIDATION_ERROR", results.get(0).getErrorCode());
+            assertEquals("CONCURRENT_MODIFICATION", results.get(1).getErrorCode());
+            verify(reactiveNoteRepository, never()).save(any());
+            verify(noteRepository, never()).patchReactive(eq(OTHER_NOTE_ID), anyLong(), any());
+            verify(userVersionRepository, never()).bump(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a second operation on the same note")
+        void shouldRejectDuplicateNote() {
+            when(noteRepository.findAllActiveById(any())).thenReturn(List.of(TestFixtures.createTestNote()));
+            when(noteRepository.patchReactive(anyString(), anyLong(), any())).thenReturn(Mono.just(5L));
+
+            List<NoteBatchResult> results = noteService.applyBatch(List.of(
+                    update(TestFixtures.TEST_NOTE_ID, true),
+                    delete(TestFixtures.TEST_NOTE_ID)), TestFixtures.TEST_USER_ID);
+
+            assertEquals(200, results.get(0).getStatus());
+            assertEquals("DUPLICATE_OPERATION", results.get(1).getErrorCode());
+            verify(noteRepository, times(1)).patchReactive(anyString(), anyLong(), any());
+        }
+
+        private NoteOperation create(String listId, String content) {
+            CreateNoteRequest note = new CreateNoteRequest();
+            note.setContent(content);
+            NoteOperation operation = new NoteOperation();
+            operation.setOp(NoteOperation.Type.CREATE);
+            operation.setListId(listId);
+            operation.setNote(note);
+            return operation;
+        }
+
+        private NoteOperation update(String id, boolean done) {
+            UpdateNoteRequest changes = new UpdateNoteRequest();
+            changes.setDone(done);
+            NoteOperation operation = new NoteOperation();
+            operation.setOp(NoteOperation.Type.UPDATE);
+            operation.setId(id);
+            operation.setChanges(changes);
+            return operation;
+        }
+
+        private NoteOperation delete(String id) {
+            NoteOperation operation = new NoteOperation();
+            operation.setOp(NoteOperation.Type.DELETE);
+            operation.setId(id);
+            return operation;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.erailea.todoappclone.service;
+
+import com.erailea.todoappclone.concurrent.FanOutExecutor;
+import com.erailea.todoappclone.config.SyncConfig;
+import com.erailea.todoappclone.dto.response.SyncResponse;
+import com.erailea.todoappclone.exception.BusinessException;
+import com.erailea.todoappclone.fixture.TestFixtures;
+import com.erailea.todoappclone.model.Note;
+import com.erailea.todoappclone.model.TodoList;
+import com.erailea.todoappclone.pagination.SyncToken;
+import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.service.impl.SyncServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncServiceTest {
+
+    @Mock
+    private TodoListRepository todoListRepository;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Spy
+    private SyncConfig syncConfig = new SyncConfig();
+
+    @Spy
+    private FanOutExecutor fanOutExecutor = new FanOutExecutor(true);
+
+    @InjectMocks
+    private SyncServiceImpl syncService;
+
+    @Nested
+    @DisplayName("getChanges()")
+    class GetChangesTests {
+        @Test
+        @DisplayName("Should return lists and notes changed since the checkpoint, deleted ones included")
+        void shouldReturnChangesSinceCheckpoint() {
+            long since = System.currentTimeMillis() - 60_000;
+            TodoList deletedList = TestFixtures.createTestTodoList();
+            deletedList.setDeletedAt(LocalDateTime.now());
+            Note note = TestFixtures.createTestNote();
+            when(todoListRepository.findAllByUserIdChangedSince(TestFixtures.TEST_USER_ID, since))
+                    .thenReturn(List.of(deletedList));
+            when(noteRepository.findAllByUserIdChangedSince(TestFixtures.TEST_USER_ID, since))
+                    .thenReturn(List.of(note));
+
+            SyncResponse response = syncService.getChanges(TestFixtures.TEST_USER_ID, new SyncToken(since).encode());
+
+            assertEquals(List.of(deletedList), response.getLists());
+            assertEquals(List.of(note), response.getNotes());
+            assertTrue(SyncToken.decode(response.getNext()).since() > since);
+        }
+
+        @Test
+        @DisplayName("Should issue the next checkpoint a skew window behind the clock")
+        void shouldIssueCheckpointBehindClock() {
+            long before = System.currentTimeMillis();
+
+            SyncResponse response = syncService.getChanges(TestFixtures.TEST_USER_ID, null);
+
+            long next = SyncToken.decode(response.getNext()).since();
+            long window = syncConfig.getSkewWindow().toMillis();
+            assertTrue(next >= before - window && next <= System.currentTimeMillis() - window);
+            assertTrue(response.getLists().isEmpty());
+            assertTrue(response.getNotes().isEmpty());
+            verify(noteRepository, never()).findAllByUserIdChangedSince(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject a checkpoint that is not a sync token")
+        void shouldRejectMalformedCheckpoint() {
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    syncService.getChanges(TestFixtures.TEST_USER_ID, "not-a-token"));
+
+            assertEquals("INVALID_CURSOR", exception.getErrorCode());
+        }
+    }
+}
@@ -1,30 +1,47 @@
 package com.erailea.todoappclone.service;
 
+import com.erailea.todoappclone.config.EmbeddedNotesConfig;
 import com.erailea.todoappclone.dto.response.TodoListResponse;
+import com.erailea.todoappclone.events.ChangeEventHub;
 import com.erailea.todoappclone.exception.ResourceNotFoundException;
 import com.erailea.todoappclone.fixture.TestFixtures;
 import com.erailea.todoappclone.mapper.TodoListMapper;
+import com.erailea.todoappclone.model.CascadeDeleteJob;
+import com.erailea.todoappclone.model.EmbeddedNote;
 import com.erailea.todoappclone.model.Note;
 import com.erailea.todoappclone.model.TodoList;
-import com.erailea.todoappclone.repository.NoteRepository;
+import com.erailea.todoappclone.pagination.CursorPage;
+import com.erailea.todoappclone.pagination.ListCursor;
+import com.erailea.todoappclone.repository.ReactiveNoteRepository;
+import com.erailea.todoappclone.repository.ReactiveTodoListRepository;
 import com.erailea.todoappclone.repository.TodoListRepository;
+import com.erailea.todoappclone.repository.UserVersionRepository;
+import com.erailea.todoappclone.search.NoteSearchIndex;
 import com.erailea.todoappclone.service.impl.TodoListServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,10 +51,28 @@ class TodoListServiceTest {
     private TodoListRepository todoListRepository;
 
     @Mock
-    private NoteRepository noteRepository;
+    private TodoListMapper todoListMapper;
 
     @Mock
-    private TodoListMapper todoListMapper;
+    private ReactiveTodoListRepository reactiveTodoListRepository;
+
+    @Mock
+    private ReactiveNoteRepository reactiveNoteRepository;
+
+    @Spy
+    private EmbeddedNotesConfig embeddedNotesConfig = new EmbeddedNotesConfig();
+
+    @Mock
+    private CascadeDeleteJobService cascadeDeleteJobService;
+
+    @Mock
+    private UserVersionRepository userVersionRepository;
+
+    @Mock
+    private ChangeEventHub changeEventHub;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
 
     @InjectMocks
     private TodoListServiceImpl todoListService;
@@ -57,53 +92,130 @@ class TodoListServiceTest {
             assertEquals(expectedList.getTitle(), result.getTitle());
             assertEquals(expectedList.getUserId(), result.getUserId());
             verify(todoListRepository).save(any(TodoList.class));
+            verify(userVersionRepository).bump(TestFixtures.TEST_USER_ID);
         }
     }
 
     @Nested
-    @DisplayName("getLists()")
-    class GetListsTests {
+    @DisplayName("getListsReactive()")
+    class GetListsReactiveTests {
         @Test
-        @DisplayName("Should return all lists for user")
-        void shouldReturnAllListsForUser() {
+        @DisplayName("Should load notes only for the lists on the page and return the next cursor")
+        void shouldReturnPageWithNotesAndCursor() {
             TodoList testList = TestFixtures.createTestTodoList();
-            List<TodoList> todoLists = List.of(testList);
-            List<Note> notes = Collections.emptyList();
+            TodoList nextList = TestFixtures.createTestTodoList();
+            nextList.setId("next-list-id");
+            Note note = TestFixtures.createTestNote();
             TodoListResponse expectedResponse = new TodoListResponse();
             expectedResponse.setId(testList.getId());
-            expectedResponse.setTitle(testList.getTitle());
+            ListCursor start = ListCursor.START;
+            when(reactiveTodoListRepository.findPageByUserId(TestFixtures.TEST_USER_ID, start.createdAt(), start.id(), 2))
+                    .thenReturn(Flux.just(testList, nextList));
+            when(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List.of(testList.getId())))
+                    .thenReturn(Flux.just(note));
+            when(todoListMapper.toResponse(testList, List.of(note))).thenReturn(expectedResponse);
 
-            when(todoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID))
-                    .thenReturn(todoLists);
-            when(noteRepository.findAllByListIdInAndDeletedAtIsNull(Collections.singletonList(testList.getId())))
-                    .thenReturn(notes);
-            when(todoListMapper.toResponse(testList, notes))
-                    .thenReturn(expectedResponse);
+            CursorPage<TodoListResponse> page = todoListService.getListsReactive(TestFixtures.TEST_USER_ID, null, 1).block();
 
-            List<TodoListResponse> result = todoListService.getLists(TestFixtures.TEST_USER_ID);
+            assertEquals(List.of(expectedResponse), page.items());
+            assertEquals(ListCursor.of(testList), ListCursor.decode(page.nextCursor()));
+        }
 
-            assertNotNull(result);
-            assertEquals(1, result.size());
-            assertEquals(expectedResponse.getTitle(), result.get(0).getTitle());
-            verify(todoListRepository).findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID);
-            verify(noteRepository).findAllByListIdInAndDeletedAtIsNull(Collections.singletonList(testList.getId()));
-            verify(todoListMapper).toResponse(testList, notes);
+        @Test
+        @DisplayName("Should continue after the cursor and skip the note query on an empty page")
+        void shouldReturnEmptyLastPage() {
+            TodoList testList = TestFixtures.createTestTodoList();
+            ListCursor after = ListCursor.of(testList);
+            when(reactiveTodoListRepository.findPageByUserId(TestFixtures.TEST_USER_ID, after.createdAt(), after.id(), 51))
+                    .thenReturn(Flux.empty());
+
+            CursorPage<TodoListResponse> page = todoListService.getListsReactive(
+                    TestFixtures.TEST_USER_ID, after.encode(), 50).block();
+
+            assertTrue(page.items().isEmpty());
+            assertNull(page.nextCursor());
+            verify(reactiveNoteRepository, never()).findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(anyList());
         }
 
         @Test
-        @DisplayName("Should return empty list when no lists found")
-        void shouldReturnEmptyListWhenNoListsFound() {
-            when(todoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID))
-                    .thenReturn(Collections.emptyList());
+        @DisplayName("Should hand each list its run of the ordered note query as-is")
+        void shouldSliceOrderedNotesPerList() {
+            TodoList firstList = TestFixtures.createTestTodoList();
+            firstList.setId("list-b");
+            TodoList secondList = TestFixtures.createTestTodoList();
+            secondList.setId("list-a");
+            TodoList emptyList = TestFixtures.createTestTodoList();
+            emptyList.setId("list-ab");
+            Note a1 = TestFixtures.createTestNote();
+            a1.setListId("list-a");
+            Note a2 = TestFixtures.createTestNote();
+            a2.setListId("list-a");
+            a2.setDueDate(null);
+            Note b1 = TestFixtures.createTestNote();
+            b1.setListId("list-b");
+            ListCursor start = ListCursor.START;
+            when(reactiveTodoListRepository.findPageByUserId(TestFixtures.TEST_USER_ID, start.createdAt(), start.id(), 51))
+                    .thenReturn(Flux.just(firstList, secondList, emptyList));
+            when(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List.of("list-b", "list-a", "list-ab")))
+                    .thenReturn(Flux.just(a1, a2, b1));
 
-            List<TodoListResponse> result = todoListService.getLists(TestFixtures.TEST_USER_ID);
+            todoListService.getListsReactive(TestFixtures.TEST_USER_ID, null, 50).block();
 
-            assertNotNull(result);
-            assertTrue(result.isEmpty());
-            verify(todoListRepository).findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID);
-            // Verify that note repository is not called when no lists exist
-            verify(noteRepository, never()).findAllByListIdInAndDeletedAtIsNull(any());
-            verify(todoListMapper, never()).toResponse(any(TodoList.class), any());
+            verify(todoListMapper).toResponse(firstList, List.of(b1));
+            verify(todoListMapper).toResponse(secondList, List.of(a1, a2));
+            verify(todoListMapper).toResponse(emptyList, List.of());
+        }
+
+        @Test
+        @DisplayName("Should render embedded lists from their own document and query only the rest")
+        void shouldQueryNotesOnlyForListsWithoutEmbeddedNotes() {
+            embeddedNotesConfig.setEnabled(true);
+            TodoList embeddedList = TestFixtures.createTestTodoList();
+            embeddedList.setNotes(Map.of(TestFixtures.TEST_NOTE_ID, EmbeddedNote.of(TestFixtures.createTestNote())));
+            TodoList plainList = TestFixtures.createTestTodoList();
+            plainList.setId("plain-list-id");
+            ListCursor start = ListCursor.START;
+            when(reactiveTodoListRepository.findPageByUserId(TestFixtures.TEST_USER_ID, start.createdAt(), start.id(), 51))
+                    .thenReturn(Flux.just(embeddedList, plainList));
+            when(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List.of("plain-list-id")))
+                    .thenReturn(Flux.empty());
+
+            todoListService.getListsReactive(TestFixtures.TEST_USER_ID, null, 50).block();
+
+            verify(todoListMapper).toResponse(eq(embeddedList),
+                    argThat(notes -> notes.size() == 1 && TestFixtures.TEST_NOTE_ID.equals(notes.get(0).getId())));
+            verify(todoListMapper).toResponse(plainList, Collections.emptyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("streamLists()")
+    class StreamListsTests {
+        @Test
+        @DisplayName("Should query notes one batch of lists at a time and keep the list order")
+        void shouldStreamListsInBatches() {
+            List<TodoList> todoLists = IntStream.range(0, 51)
+                    .mapToObj(i -> {
+                        TodoList list = TestFixtures.createTestTodoList();
+                        list.setId("list-" + i);
+                        return list;
+                    })
+                    .toList();
+            when(reactiveTodoListRepository.findAllByUserIdAndDeletedAtIsNullOrderByCreatedAtDesc(TestFixtures.TEST_USER_ID))
+                    .thenReturn(Flux.fromIterable(todoLists));
+            when(reactiveNoteRepository.findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(anyList())).thenReturn(Flux.empty());
+            when(todoListMapper.toResponse(any(TodoList.class), anyList())).thenAnswer(invocation -> {
+                TodoListResponse response = new TodoListResponse();
+                response.setId(invocation.<TodoList>getArgument(0).getId());
+                return response;
+            });
+
+            List<TodoListResponse> result = todoListService.streamLists(TestFixtures.TEST_USER_ID).collectList().block();
+
+            assertEquals(todoLists.stream().map(TodoList::getId).toList(),
+                    result.stream().map(TodoListResponse::getId).toList());
+            verify(reactiveNoteRepository).findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(argThat(ids -> ids.size() == 50));
+            verify(reactiveNoteRepository).findAllByListIdInAndDeletedAtIsNullOrderByListIdAndDueDate(List.of("list-50"));
         }
     }
 
@@ -115,23 +227,21 @@ class TodoListServiceTest {
         void shouldUpdateListTitleSuccessfully() {
             TodoList existingList = TestFixtures.createTestTodoList();
             String newTitle = "Updated Title";
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
-            when(todoListRepository.findById(TestFixtures.TEST_LIST_ID))
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
                     .thenReturn(Optional.of(existingList));
-            when(todoListRepository.save(any(TodoList.class))).thenReturn(existingList);
 
             TodoList result = todoListService.updateListTitle(TestFixtures.TEST_LIST_ID, newTitle, TestFixtures.TEST_USER_ID);
 
-            assertNotNull(result);
-            verify(todoListRepository).save(any(TodoList.class));
+            assertEquals(newTitle, result.getTitle());
+            verify(todoListRepository).replaceTitle(eq(TestFixtures.TEST_LIST_ID), eq(newTitle), any(LocalDateTime.class));
+            verify(todoListRepository, never()).save(any(TodoList.class));
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when list does not exist")
         void shouldThrowExceptionWhenListDoesNotExist() {
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(0L);
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () ->
                     todoListService.updateListTitle(TestFixtures.TEST_LIST_ID, "New Title", TestFixtures.TEST_USER_ID));
@@ -142,29 +252,34 @@ class TodoListServiceTest {
     @DisplayName("deleteList()")
     class DeleteListTests {
         @Test
-        @DisplayName("Should delete list and its notes successfully when list exists and belongs to user")
+        @DisplayName("Should write the cascade job and then mark the list with the job's timestamp")
         void shouldDeleteListAndNotesSuccessfully() {
             TodoList existingList = TestFixtures.createTestTodoList();
-            List<Note> existingNotes = List.of(TestFixtures.createTestNote());
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(1L);
-            when(todoListRepository.findById(TestFixtures.TEST_LIST_ID))
+            TodoList firstAttempt = TestFixtures.createTestTodoList();
+            firstAttempt.setDeletedAt(LocalDateTime.now().minusMinutes(1));
+            // A job left behind by an earlier attempt that failed before marking the list
+            CascadeDeleteJob job = CascadeDeleteJob.forList(firstAttempt);
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
                     .thenReturn(Optional.of(existingList));
-            when(noteRepository.findAllByListIdAndDeletedAtIsNull(TestFixtures.TEST_LIST_ID))
-                    .thenReturn(existingNotes);
-            when(todoListRepository.save(any(TodoList.class))).thenReturn(existingList);
-            when(noteRepository.saveAll(anyList())).thenReturn(existingNotes);
+            when(cascadeDeleteJobService.enqueue(existingList)).thenReturn(job);
 
-            assertDoesNotThrow(() -> todoListService.deleteList(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID));
-            verify(todoListRepository).save(any(TodoList.class));
-            verify(noteRepository).saveAll(anyList());
+            CascadeDeleteJob result = todoListService.deleteList(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID);
+
+            assertSame(job, result);
+            assertEquals(job.getDeletedAt(), existingList.getDeletedAt());
+            InOrder inOrder = inOrder(cascadeDeleteJobService, todoListRepository);
+            inOrder.verify(cascadeDeleteJobService).enqueue(existingList);
+            inOrder.verify(todoListRepository).markDeleted(TestFixtures.TEST_LIST_ID, job.getDeletedAt());
+            verify(todoListRepository, never()).save(any(TodoList.class));
+            // The search index drops them right away so they stop matching before the job gets to them
+            verify(noteSearchIndex).removeList(TestFixtures.TEST_USER_ID, TestFixtures.TEST_LIST_ID, 0L);
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when list does not exist")
         void shouldThrowExceptionWhenListDoesNotExist() {
-            when(todoListRepository.countByIdAndUserIdAndNotDeleted(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
-                    .thenReturn(0L);
+            when(todoListRepository.findActiveByIdAndUserId(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID))
+                    .thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () ->
                     todoListService.deleteList(TestFixtures.TEST_LIST_ID, TestFixtures.TEST_USER_ID));
@@ -8,6 +8,18 @@ if (token) {
   axios.defaults.headers.common['Authorization'] = `Bearer ${token}`
 }
 
+// Helper function to load every page of a cursor-paginated endpoint
+const fetchAllPages = async (url) => {
+  const items = []
+  let cursor = null
+  do {
+    const response = await axios.get(url, { params: cursor ? { cursor } : {} })
+    items.push(...response.data)
+    cursor = response.headers['x-next-cursor']
+  } while (cursor)
+  return items
+}
+
 // Helper function to sort notes by dueDate (null values last)
 const sortNotesByDueDate = (notes) => {
   return notes.sort((a, b) => {
@@ -33,7 +45,8 @@ export default createStore({
     user: null,
     isAuthenticated: !!getToken(),
     todoLists: [],
-    listNotes: {} // Store notes by listId: { listId: [notes] }
+    listNotes: {}, // Store notes by listId: { listId: [notes] }
+    syncToken: null // Checkpoint of the last GET /sync
   },
   
   mutations: {
@@ -53,6 +66,7 @@ export default createStore({
       state.isAuthenticated = false
       state.todoLists = []
       state.listNotes = {}
+      state.syncToken = null
       removeToken()
       delete axios.defaults.headers.common['Authorization']
     },
@@ -89,6 +103,31 @@ export default createStore({
       delete state.listNotes[listId]
     },
 
+    APPLY_SYNC(state, { lists, notes, next }) {
+      lists.forEach(list => {
+        const index = state.todoLists.findIndex(l => l.id === list.id)
+        if (list.deletedAt) {
+          if (index !== -1) state.todoLists.splice(index, 1)
+          delete state.listNotes[list.id]
+        } else if (index !== -1) {
+          state.todoLists.splice(index, 1, list)
+        } else {
+          state.todoLists.push(list)
+          state.listNotes[list.id] = state.listNotes[list.id] || []
+        }
+      })
+      notes.forEach(note => {
+        // A note may have moved, so drop it from every list before re-adding it where it now belongs
+        Object.keys(state.listNotes).forEach(listId => {
+          state.listNotes[listId] = state.listNotes[listId].filter(n => n.id !== note.id)
+        })
+        if (!note.deletedAt && state.listNotes[note.listId]) {
+          state.listNotes[note.listId] = sortNotesByDueDate([...state.listNotes[note.listId], note])
+        }
+      })
+      state.syncToken = next
+    },
+
     SET_LIST_NOTES(state, { listId, notes }) {
       // Notes are already sorted by backend
       state.listNotes[listId] = notes
@@ -194,14 +233,25 @@ export default createStore({
     
     async fetchTodoLists({ commit }) {
       try {
-        const response = await axios.get(`${import.meta.env.VITE_API_BASE_URL}/lists`)
-        commit('SET_TODO_LISTS', response.data)
-        return response.data
+        // Checkpoint first, so changes made while the lists load come with the next sync
+        const sync = await axios.get(`${import.meta.env.VITE_API_BASE_URL}/sync`)
+        const lists = await fetchAllPages(`${import.meta.env.VITE_API_BASE_URL}/lists`)
+        commit('SET_TODO_LISTS', lists)
+        commit('APPLY_SYNC', { lists: [], notes: [], next: sync.data.next })
+        return lists
       } catch (error) {
         throw error
       }
     },
     
+    async syncChanges({ commit, state }) {
+      if (!state.syncToken) return
+      const response = await axios.get(`${import.meta.env.VITE_API_BASE_URL}/sync`, {
+        params: { since: state.syncToken }
+      })
+      commit('APPLY_SYNC', response.data)
+    },
+
     async createTodoList({ commit }, title) {
       try {
         const response = await axios.post(`${import.meta.env.VITE_API_BASE_URL}/lists`, { title })
@@ -224,9 +274,9 @@ export default createStore({
 
     async fetchNotes({ commit }, listId) {
       try {
-        const response = await axios.get(`${import.meta.env.VITE_API_BASE_URL}/lists/${listId}/notes`)
-        commit('SET_LIST_NOTES', { listId, notes: response.data })
-        return response.data
+        const notes = await fetchAllPages(`${import.meta.env.VITE_API_BASE_URL}/lists/${listId}/notes`)
+        commit('SET_LIST_NOTES', { listId, notes })
+        return notes
       } catch (error) {
         throw error
       }